@@ -10,7 +10,8 @@ CREATE TABLE users
     token            VARCHAR(100),
     token_expired_at BIGINT,
     PRIMARY KEY (username),
-    UNIQUE (token)
+    UNIQUE (token),
+    INDEX idx_users_token_expired_at (token_expired_at)
 ) ENGINE InnoDB;
 
 SELECT *
@@ -20,14 +21,17 @@ DESC users;
 
 CREATE TABLE contacts
 (
-    id         VARCHAR(100) NOT NULL,
+    id         BINARY(16)   NOT NULL,
     username   VARCHAR(100) NOT NULL,
     first_name VARCHAR(100) NOT NULL,
     last_name  VARCHAR(100),
     phone      VARCHAR(100),
     email      VARCHAR(100),
+    version    BIGINT       NOT NULL DEFAULT 0,
+    updated_at BIGINT,
     PRIMARY KEY (id),
-    FOREIGN KEY fk_users_contacts (username) REFERENCES users (username)
+    FOREIGN KEY fk_users_contacts (username) REFERENCES users (username),
+    INDEX idx_contacts_username_first_name_id (username, first_name, id)
 ) ENGINE InnoDB;
 
 SELECT *
@@ -37,8 +41,8 @@ DESC contacts;
 
 CREATE TABLE addresses
 (
-    id          VARCHAR(100) NOT NULL,
-    contact_id  VARCHAR(100) NOT NULL,
+    id          BINARY(16)   NOT NULL,
+    contact_id  BINARY(16)   NOT NULL,
     street      VARCHAR(200),
     city        VARCHAR(100),
     province    VARCHAR(100),
@@ -0,0 +1,152 @@
+package com.restful.core.concurrency;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 2,000 clients sending one request each at the same moment, handled either
+ * by a pool of 200 platform threads (Tomcat's default) or by one virtual
+ * thread per request. Each request borrows one of 20 pooled connections for a
+ * short query, as in application.properties, and also waits {@code waitMillis}
+ * without a connection, standing in for the BCrypt pool or a slow client.
+ * The score is the time to serve the whole burst; p99 request latency and the
+ * peak number of platform threads are printed after each iteration.
+ * <p>
+ * The virtual mode needs Java 21: {@code ./gradlew jmh -PjavaVersion=21}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequestThreadingBenchmark {
+    private static final int CLIENTS = 2000;
+
+    private static final int POOL_SIZE = 20;
+
+    private static final int PLATFORM_THREADS = 200;
+
+    // Time a connection is held, standing in for the query itself
+    private static final long QUERY_MILLIS = 2;
+
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    @Param({ "0", "20" })
+    private long waitMillis;
+
+    private HikariDataSource dataSource;
+
+    private ExecutorService executor;
+
+    private ThreadMXBean threadBean;
+
+    private long[] latencies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:threading;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(TimeUnit.MINUTES.toMillis(1));
+        dataSource = new HikariDataSource(config);
+
+        executor = threads.equals("virtual") ? virtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        threadBean = ManagementFactory.getThreadMXBean();
+        latencies = new long[CLIENTS];
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        threadBean.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%n%s threads, %d ms wait: p99 %.1f ms, peak platform threads %d%n", threads, waitMillis,
+                sorted[(int) Math.ceil(CLIENTS * 0.99) - 1] / 1e6, threadBean.getPeakThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            int client = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    handle();
+                } finally {
+                    latencies[client] = System.nanoTime() - submitted;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handle() {
+        try {
+            if (waitMillis > 0) {
+                Thread.sleep(waitMillis);
+            }
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("select 1")) {
+                resultSet.next();
+                Thread.sleep(QUERY_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Looked up reflectively so the benchmarks still compile on the Java 17 toolchain
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21, run with -PjavaVersion=21", e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.restful.core.ids;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contact inserts into a file-backed H2 database, with the table laid out as
+ * in db.sql: a primary key on the ID and a secondary index that ends in it.
+ * Three keys are compared: random UUID strings in VARCHAR(100), as before;
+ * random UUIDs in BINARY(16), which isolates the width; and time-ordered
+ * UUIDs in BINARY(16). Each invocation commits one batch into an ever
+ * growing table. H2's MVStore is not InnoDB, but it suffers from random keys
+ * the same way: every batch touches pages all over the B-trees instead of the
+ * right edge. After the trial the database file size and the store's page
+ * and write counters are printed as the index-size and page-churn figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ContactInsertBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({ "random-varchar", "random-binary", "ordered-binary" })
+    private String key;
+
+    private Path directory;
+
+    private Connection connection;
+
+    private PreparedStatement insert;
+
+    private long rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("contact-inserts");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("contacts") + ";MODE=MySQL",
+                "sa", "");
+
+        String idType = key.equals("random-varchar") ? "VARCHAR(100)" : "BINARY(16)";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contacts (id " + idType + " PRIMARY KEY, username VARCHAR(100) NOT NULL, "
+                    + "first_name VARCHAR(100) NOT NULL, last_name VARCHAR(100), email VARCHAR(100), "
+                    + "phone VARCHAR(100))");
+            statement.execute("CREATE INDEX idx_contacts_username_first_name_id ON contacts (username, first_name, id)");
+        }
+
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(
+                "INSERT INTO contacts (id, username, first_name, last_name, email, phone) VALUES (?, ?, ?, ?, ?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+            System.out.printf("%n  %s: %d rows, %.1f MB on disk, %.1f bytes/row%n", key, rows,
+                    fileSize() / 1048576.0, (double) fileSize() / rows);
+            try (ResultSet settings = statement.executeQuery("SELECT SETTING_NAME, SETTING_VALUE "
+                    + "FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME LIKE 'info.%'")) {
+                while (settings.next()) {
+                    System.out.printf("  %s = %s%n", settings.getString(1), settings.getString(2));
+                }
+            }
+        }
+        connection.close();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            switch (key) {
+                case "random-varchar" -> insert.setString(1, UUID.randomUUID().toString());
+                case "random-binary" -> insert.setBytes(1, bytes(UUID.randomUUID()));
+                default -> insert.setBytes(1, bytes(TimeOrderedUuid.next()));
+            }
+            insert.setString(2, "bench");
+            insert.setString(3, "First" + (rows % 5000));
+            insert.setString(4, "Last" + rows);
+            insert.setString(5, "contact" + rows + "@example.com");
+            insert.setString(6, "0812" + rows);
+            insert.addBatch();
+            rows++;
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private long fileSize() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            long size = 0;
+            for (Path file : files.toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,92 @@
+package com.restful.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.restful.core.model.Contact.ContactResponse;
+
+/**
+ * Serializes a page of contact search results in its {@link WebResponse}
+ * envelope. {@code json} is plain reflective Jackson as before; the other
+ * formats use the Blackbird module registered in
+ * {@link com.restful.core.JacksonConfig}. Bytes on the wire for each format
+ * are printed when each trial ends; the gc profiler reports allocation per
+ * operation as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebResponseSerializationBenchmark {
+    @Param({ "json", "json-blackbird", "smile", "cbor" })
+    private String format;
+
+    @Param({ "10", "100" })
+    private int pageSize;
+
+    private ObjectWriter writer;
+
+    private WebResponse<List<ContactResponse>> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "json-blackbird" -> new ObjectMapper().registerModule(new BlackbirdModule());
+            case "smile" -> new ObjectMapper(new SmileFactory()).registerModule(new BlackbirdModule());
+            case "cbor" -> new ObjectMapper(new CBORFactory()).registerModule(new BlackbirdModule());
+            default -> throw new IllegalArgumentException(format);
+        };
+        // ContactResponse carries a @JsonFilter, unused without ?fields=
+        writer = mapper.writer(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+        List<ContactResponse> contacts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            contacts.add(new ContactResponse(UUID.randomUUID().toString(), "First" + i, "Last" + i,
+                    "contact" + i + "@example.com", "0812345678" + (i % 10), 1L));
+        }
+        page = WebResponse.<List<ContactResponse>>builder()
+                .data(contacts)
+                .paging(PagingResponse.builder()
+                        .currentPage(0)
+                        .totalPage(50)
+                        .size(pageSize)
+                        .build())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSize() throws JsonProcessingException {
+        System.out.printf("%n%s, %d contacts: %d bytes%n", format, pageSize, writer.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
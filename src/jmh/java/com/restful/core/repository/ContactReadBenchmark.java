@@ -0,0 +1,177 @@
+package com.restful.core.repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.restful.core.entity.Address;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.Contact.ContactResponse;
+
+/**
+ * Contact reads as entities mapped to {@link ContactResponse} (the old path)
+ * against constructor-expression projections (the current one), each in a
+ * fresh session as a request would see it. The gc profiler reports bytes
+ * allocated per operation as {@code gc.alloc.rate.norm}; statements and
+ * entity loads per operation are printed when each trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactReadBenchmark {
+    private static final int CONTACTS = 1000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String PROJECTION = "select new com.restful.core.model.Contact.ContactResponse("
+            + "c.id, c.firstName, c.lastName, c.email, c.phone, c.version) from Contact c ";
+
+    private SessionFactory sessionFactory;
+
+    private UUID contactId;
+
+    private Statistics statistics;
+
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Contact.class)
+                .addAnnotatedClass(Address.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:reads;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            User user = new User();
+            user.setUsername("bench");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuuabcdefghijklmnopqrstuvwxyz01234");
+            user.setName("Bench");
+            session.persist(user);
+
+            for (int i = 0; i < CONTACTS; i++) {
+                Contact contact = new Contact();
+                contact.setUser(user);
+                contact.setFirstName("First" + i);
+                contact.setLastName("Last" + i);
+                contact.setEmail("contact" + i + "@example.com");
+                contact.setPhone("0812" + i);
+                session.persist(contact);
+                if (i == CONTACTS / 2) {
+                    contactId = contact.getId();
+                }
+            }
+        });
+
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStatistics() {
+        System.out.printf("%n  statements/op: %.2f, entity loads/op: %.2f%n",
+                (double) statistics.getPrepareStatementCount() / operations,
+                (double) statistics.getEntityLoadCount() / operations);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public ContactResponse getEntity() {
+        operations++;
+        try (Session session = sessionFactory.openSession()) {
+            Contact contact = session.createSelectionQuery(
+                    "from Contact c where c.user.username = :username and c.id = :id", Contact.class)
+                    .setParameter("username", "bench")
+                    .setParameter("id", contactId)
+                    .getSingleResult();
+            return toResponse(contact);
+        }
+    }
+
+    @Benchmark
+    public ContactResponse getProjection() {
+        operations++;
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(
+                    PROJECTION + "where c.user.username = :username and c.id = :id", ContactResponse.class)
+                    .setParameter("username", "bench")
+                    .setParameter("id", contactId)
+                    .getSingleResult();
+        }
+    }
+
+    @Benchmark
+    public List<ContactResponse> searchEntity() {
+        operations++;
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(
+                    "from Contact c where c.user.username = :username and c.firstName like :name", Contact.class)
+                    .setParameter("username", "bench")
+                    .setParameter("name", "%First1%")
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList()
+                    .stream()
+                    .map(ContactReadBenchmark::toResponse)
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<ContactResponse> searchProjection() {
+        operations++;
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(
+                    PROJECTION + "where c.user.username = :username and c.firstName like :name",
+                    ContactResponse.class)
+                    .setParameter("username", "bench")
+                    .setParameter("name", "%First1%")
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+        }
+    }
+
+    private static ContactResponse toResponse(Contact contact) {
+        return ContactResponse.builder()
+                .id(contact.getId().toString())
+                .firstName(contact.getFirstName())
+                .lastName(contact.getLastName())
+                .email(contact.getEmail())
+                .phone(contact.getPhone())
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.restful.core.search;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * First page of a contact search for one user, the way
+ * {@link com.restful.core.services.ContactServices} runs it: {@code LIKE}
+ * page plus count query, against an index lookup followed by a primary-key
+ * read of the page. Both paths query an in-memory H2 database in MySQL mode
+ * with case-insensitive strings, so absolute numbers are lower than on MySQL
+ * but the scan versus seek shape is the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContactSearchBenchmark {
+    private static final String[] FIRST_NAMES = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen", "Budi", "Siti", "Agus", "Dewi", "Ahmad", "Putri" };
+
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Santoso",
+            "Wijaya", "Hakim", "Saputra", "Pratama", "Hidayat" };
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({ "10000", "100000", "1000000" })
+    private int contacts;
+
+    // A selective name fragment and a broad email fragment
+    @Param({ "mart", "mail.co" })
+    private String term;
+
+    private Connection connection;
+
+    private ContactTrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:contacts;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS contacts");
+            statement.execute("CREATE TABLE contacts (id VARCHAR(100) PRIMARY KEY, username VARCHAR(100) NOT NULL, "
+                    + "first_name VARCHAR(100), last_name VARCHAR(100), email VARCHAR(100), phone VARCHAR(100))");
+            statement.execute("CREATE INDEX idx_contacts_username ON contacts (username)");
+        }
+
+        index = new ContactTrigramIndex();
+        Random random = new Random(42);
+        String[] domains = { "gmail.com", "yahoo.co.id", "example.org", "mail.com" };
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO contacts (id, username, first_name, last_name, email, phone) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < contacts; i++) {
+                String id = UUID.randomUUID().toString();
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String email = (firstName + "." + lastName + i + "@" + domains[random.nextInt(domains.length)])
+                        .toLowerCase();
+                String phone = "08" + (100000000L + random.nextInt(900000000));
+
+                insert.setString(1, id);
+                insert.setString(2, "bench");
+                insert.setString(3, firstName);
+                insert.setString(4, lastName);
+                insert.setString(5, email);
+                insert.setString(6, phone);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+
+                index.put(id, firstName, lastName, email, phone);
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE contacts");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<String> like() throws SQLException {
+        boolean byName = !term.contains(".");
+        String where = byName
+                ? "username = ? AND (first_name LIKE ? OR last_name LIKE ?)"
+                : "username = ? AND email LIKE ?";
+        String pattern = "%" + term + "%";
+
+        List<String> page = new ArrayList<>(PAGE_SIZE);
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, first_name, last_name, email, phone FROM contacts WHERE " + where + " LIMIT ? OFFSET 0")) {
+            int next = bind(select, byName, pattern);
+            select.setInt(next, PAGE_SIZE);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    page.add(rows.getString(1));
+                }
+            }
+        }
+
+        try (PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM contacts WHERE " + where)) {
+            bind(count, byName, pattern);
+            try (ResultSet rows = count.executeQuery()) {
+                rows.next();
+                page.add(String.valueOf(rows.getLong(1)));
+            }
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<String> trigramIndex() throws SQLException {
+        boolean byName = !term.contains(".");
+        List<String> ids = byName ? index.search(term, null, null) : index.search(null, term, null);
+        List<String> pageIds = ids.subList(0, Math.min(PAGE_SIZE, ids.size()));
+        if (pageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(pageIds.size(), "?"));
+        List<String> page = new ArrayList<>(PAGE_SIZE + 1);
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, first_name, last_name, email, phone FROM contacts WHERE username = ? AND id IN ("
+                        + placeholders + ")")) {
+            select.setString(1, "bench");
+            for (int i = 0; i < pageIds.size(); i++) {
+                select.setString(i + 2, pageIds.get(i));
+            }
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    page.add(rows.getString(1));
+                }
+            }
+        }
+        page.add(String.valueOf(ids.size()));
+        return page;
+    }
+
+    private static int bind(PreparedStatement statement, boolean byName, String pattern) throws SQLException {
+        statement.setString(1, "bench");
+        statement.setString(2, pattern);
+        if (!byName) {
+            return 3;
+        }
+        statement.setString(3, pattern);
+        return 4;
+    }
+}
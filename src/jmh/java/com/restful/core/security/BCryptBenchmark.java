@@ -0,0 +1,69 @@
+package com.restful.core.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the current {@link BCrypt} engine with the original one kept in
+ * {@link LegacyBCrypt}. Run with {@code ./gradlew jmh}; the gc profiler
+ * configured in build.gradle reports bytes allocated per operation as
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+    @Param({ "4", "6", "8", "10" })
+    private int logRounds;
+
+    private String password;
+
+    private String salt;
+
+    private String hashed;
+
+    @Setup
+    public void setUp() {
+        password = "correct horse battery staple";
+        salt = BCrypt.gensalt(logRounds);
+        hashed = BCrypt.hashpw(password, salt);
+
+        if (!hashed.equals(LegacyBCrypt.hashpw(password, salt))) {
+            throw new IllegalStateException("BCrypt and LegacyBCrypt disagree for " + salt);
+        }
+    }
+
+    @Benchmark
+    public String hashpw() {
+        return BCrypt.hashpw(password, salt);
+    }
+
+    @Benchmark
+    public String hashpwLegacy() {
+        return LegacyBCrypt.hashpw(password, salt);
+    }
+
+    @Benchmark
+    public boolean checkpw() {
+        return BCrypt.checkpw(password, hashed);
+    }
+
+    @Benchmark
+    public boolean checkpwLegacy() {
+        return LegacyBCrypt.checkpw(password, hashed);
+    }
+}
@@ -0,0 +1,131 @@
+package com.restful.core;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.model.WebResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the number of requests being handled at once. On platform threads
+ * Tomcat's pool already does this; with virtual threads every accepted
+ * connection gets a thread, so without a cap they would all queue on the
+ * connection pool and time out together. Requests wait up to
+ * {@code app.server.max-queue-wait} for a slot and then get a 503. Async
+ * requests hold their slot until the response is complete.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 = no limit
+    @Value("${app.server.max-concurrent-requests}")
+    private int maxConcurrentRequests;
+
+    @Value("${app.server.max-queue-wait}")
+    private Duration maxQueueWait;
+
+    private Semaphore permits;
+
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        if (maxConcurrentRequests <= 0) {
+            return;
+        }
+
+        permits = new Semaphore(maxConcurrentRequests, true);
+        rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests refused because too many were already in progress")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks must answer even when the service is saturated
+        return permits == null || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxQueueWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    WebResponse.<String>builder().errors("Server is busy, try again later").build());
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // An async request, such as a streamed export, still works after the
+            // first dispatch returns, so it keeps its slot until it completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        // Errors and timeouts end in onComplete as well
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        // Listeners are dropped when async processing starts again, so stay registered
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.restful.core;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Replaces Jackson's reflective property access with generated lambdas
+ * (Blackbird), and adds Smile and CBOR converters for clients that send a
+ * matching {@code Accept} header. The binary mappers are built from the same
+ * Spring-configured builder as the JSON one, so they share its modules and
+ * settings.
+ * <p>
+ * The same resource in each format is a different set of bytes, so
+ * {@link #formatTag} tells them apart in ETags.
+ * <p>
+ * Filtered models such as
+ * {@link com.restful.core.model.Contact.ContactResponse} are written in full
+ * unless a request supplies a filter.
+ */
+@Configuration
+public class JacksonConfig {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * ETag suffix for the format an {@code Accept} header negotiates among
+     * JSON, Smile and CBOR, picked the way Spring MVC picks a converter; empty
+     * for JSON, so existing tags stay valid.
+     */
+    public static String formatTag(String accept) {
+        if (accept == null) {
+            return "";
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(APPLICATION_SMILE)) {
+                return ".smile";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return ".cbor";
+            }
+        }
+        return "";
+    }
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer unfilteredByDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
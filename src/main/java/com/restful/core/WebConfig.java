@@ -4,19 +4,39 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import com.restful.core.resolver.UserArgumentResolver;
 
+import jakarta.persistence.EntityManagerFactory;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private UserArgumentResolver userArgumentResolver;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         WebMvcConfigurer.super.addArgumentResolvers(resolvers);
         resolvers.add(userArgumentResolver);
     }
+
+    // Replaces spring.jpa.open-in-view. An open session keeps the connection of its
+    // first query until the response is written, so the endpoints that wait on
+    // the BCrypt pool after reading go without one (login, register, and the
+    // profile update after a token lookup), as does the batch endpoint, whose
+    // request thread waits on its read lanes.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor openEntityManagerInView = new OpenEntityManagerInViewInterceptor();
+        openEntityManagerInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openEntityManagerInView)
+                .excludePathPatterns("/api/auth/login", "/api/users/register", "/api/users/current", "/api/batch");
+    }
 }
@@ -3,6 +3,7 @@ package com.restful.core.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,20 +14,23 @@ import com.restful.core.entity.User;
 import com.restful.core.model.TokenResponse;
 import com.restful.core.model.User.LoginUserRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 public class AuthController {
     @Autowired
     private AuthServices authServices;
 
     @PostMapping(path = "/api/auth/login", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public WebResponse<TokenResponse> login(@RequestBody LoginUserRequest request) {
+    public WebResponse<TokenResponse> login(@RequestBody LoginUserRequest request, HttpServletRequest servletRequest) {
+        request.setClientAddress(servletRequest.getRemoteAddr());
         TokenResponse response = authServices.login(request);
         return WebResponse.<TokenResponse>builder().data(response).build();
     }
 
     @DeleteMapping(path = "/api/auth/logout", produces = MediaType.APPLICATION_JSON_VALUE)
-    public WebResponse<String> logout(User user) {
-        authServices.logout(user);
+    public WebResponse<String> logout(User user, @RequestHeader("X-API-TOKEN") String token) {
+        authServices.logout(user, token);
         return WebResponse.<String>builder().data("OK").build();
     }
 }
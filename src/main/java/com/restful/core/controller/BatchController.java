@@ -0,0 +1,29 @@
+package com.restful.core.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.restful.core.entity.User;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Batch.BatchRequest;
+import com.restful.core.model.Batch.BatchResult;
+import com.restful.core.services.BatchServices;
+
+@RestController
+public class BatchController {
+        @Autowired
+        private BatchServices batchServices;
+
+        @PostMapping(path = "/api/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+        public WebResponse<List<BatchResult>> batch(User user, @RequestBody BatchRequest request) {
+                List<BatchResult> results = batchServices.run(user, request);
+                return WebResponse.<List<BatchResult>>builder()
+                                .data(results)
+                                .build();
+        }
+}
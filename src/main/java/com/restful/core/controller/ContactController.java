@@ -2,33 +2,57 @@ package com.restful.core.controller;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.restful.core.JacksonConfig;
+import com.restful.core.services.BulkContactServices;
+import com.restful.core.services.ContactCursor;
 import com.restful.core.services.ContactServices;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
+import com.restful.core.model.Contact.BulkContactOperation;
+import com.restful.core.model.Contact.BulkContactResult;
 import com.restful.core.model.Contact.CreateContactRequest;
 import com.restful.core.model.Contact.SearchContactRequest;
 import com.restful.core.model.Contact.UpdateContactRequest;
 import com.restful.core.model.Contact.ContactResponse;
+import com.restful.core.model.Contact.ContactWithAddressesResponse;
+import com.restful.core.model.Contact.ContactField;
+import com.restful.core.model.Contact.ContactLookupResponse;
+import com.restful.core.model.Contact.LookupContactRequest;
+import com.restful.core.model.Contact.ExportFormat;
+import com.restful.core.model.Contact.PatchContactRequest;
 import com.restful.core.model.PagingResponse;
 import com.restful.core.model.WebResponse;
 import com.restful.core.entity.User;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 public class ContactController {
         @Autowired
         private ContactServices contactServices;
 
+        @Autowired
+        private BulkContactServices bulkContactServices;
+
         @PostMapping(path = "/api/contacts", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
         public WebResponse<ContactResponse> create(User user, @RequestBody CreateContactRequest request) {
                 ContactResponse contactResponse = contactServices.create(user, request);
@@ -37,9 +61,44 @@ public class ContactController {
                                 .build();
         }
 
-        @GetMapping(path = "/api/contacts/{contactId}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-        public WebResponse<ContactResponse> get(User user, @PathVariable("contactId") String contactId) {
-                ContactResponse contactResponse = contactServices.get(user, contactId);
+        @PostMapping(path = "/api/contacts/bulk", produces = { MediaType.APPLICATION_JSON_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }, consumes = MediaType.APPLICATION_JSON_VALUE)
+        public WebResponse<List<BulkContactResult>> bulk(User user, @RequestBody List<BulkContactOperation> operations,
+                        HttpServletResponse servletResponse) {
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                List<BulkContactResult> results = bulkContactServices.apply(user, operations);
+                return WebResponse.<List<BulkContactResult>>builder()
+                                .data(results)
+                                .build();
+        }
+
+        @PostMapping(path = "/api/contacts/lookup", produces = { MediaType.APPLICATION_JSON_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }, consumes = MediaType.APPLICATION_JSON_VALUE)
+        public WebResponse<ContactLookupResponse> lookup(User user, @RequestBody LookupContactRequest request,
+                        @RequestParam(value = "fields", required = false) String fields,
+                        HttpServletResponse servletResponse) {
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                request.setFields(ContactField.parse(fields));
+                ContactLookupResponse lookupResponse = contactServices.lookup(user, request);
+                return WebResponse.<ContactLookupResponse>builder()
+                                .data(lookupResponse)
+                                .build();
+        }
+
+        @GetMapping(path = "/api/contacts/{contactId}", produces = { MediaType.APPLICATION_JSON_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+        public WebResponse<ContactResponse> get(User user, @PathVariable("contactId") String contactId,
+                        @RequestParam(value = "fields", required = false) String fields,
+                        WebRequest webRequest, HttpServletResponse servletResponse) {
+                Set<ContactField> selected = ContactField.parse(fields);
+                String format = JacksonConfig.formatTag(webRequest.getHeader(HttpHeaders.ACCEPT));
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+                // Revalidation only needs the version column; null tells Spring to send the 304 as is
+                if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null && webRequest.checkNotModified(
+                                contactETag(contactServices.version(user, contactId), selected) + format)) {
+                        return null;
+                }
+
+                ContactResponse contactResponse = contactServices.get(user, contactId, selected);
+                webRequest.checkNotModified(contactETag(contactResponse.getVersion(), selected) + format);
                 return WebResponse.<ContactResponse>builder()
                                 .data(contactResponse)
                                 .build();
@@ -56,7 +115,21 @@ public class ContactController {
                                 .build();
         }
 
-        @DeleteMapping(path = "/api/contacts/{contactId}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+        @PatchMapping(path = "/api/contacts/{contactId}", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+        public WebResponse<ContactResponse> patch(User user,
+                        @RequestBody PatchContactRequest request,
+                        @PathVariable("contactId") String contactId,
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                        HttpServletResponse servletResponse) {
+                ContactResponse contactResponse = contactServices.patch(user, contactId, ifMatchVersion(ifMatch),
+                                request);
+                servletResponse.setHeader(HttpHeaders.ETAG, "\"" + contactETag(contactResponse.getVersion(), null) + "\"");
+                return WebResponse.<ContactResponse>builder()
+                                .data(contactResponse)
+                                .build();
+        }
+
+        @DeleteMapping(path = "/api/contacts/{contactId}", produces = MediaType.APPLICATION_JSON_VALUE)
         public WebResponse<String> delete(User user, @PathVariable("contactId") String contactId) {
                 contactServices.delete(user, contactId);
                 return WebResponse.<String>builder()
@@ -64,21 +137,86 @@ public class ContactController {
                                 .build();
         }
 
-        @GetMapping(path = "/api/contacts", produces = MediaType.APPLICATION_JSON_VALUE)
+        @GetMapping(path = "/api/contacts/export")
+        public ResponseEntity<StreamingResponseBody> export(User user,
+                        @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+                ExportFormat exportFormat = ExportFormat.of(format);
+                StreamingResponseBody body = out -> contactServices.export(user, exportFormat, out);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=\"contacts." + exportFormat.getExtension() + "\"")
+                                .body(body);
+        }
+
+        @GetMapping(path = "/api/contacts/with-addresses", produces = { MediaType.APPLICATION_JSON_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+        public WebResponse<List<ContactWithAddressesResponse>> searchWithAddresses(User user,
+                        @RequestParam(value = "name", required = false) String name,
+                        @RequestParam(value = "email", required = false) String email,
+                        @RequestParam(value = "phone", required = false) String phone,
+                        @RequestParam(value = "page", required = true, defaultValue = "0") Integer page,
+                        @RequestParam(value = "size", required = true, defaultValue = "10") Integer size,
+                        HttpServletResponse servletResponse) {
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                SearchContactRequest request = SearchContactRequest.builder()
+                                .page(page)
+                                .size(size)
+                                .name(name)
+                                .phone(phone)
+                                .email(email)
+                                .build();
+
+                Page<ContactWithAddressesResponse> responses = contactServices.searchWithAddresses(user, request);
+                return WebResponse.<List<ContactWithAddressesResponse>>builder()
+                                .data(responses.getContent())
+                                .paging(PagingResponse.builder()
+                                                .currentPage(responses.getNumber())
+                                                .totalPage(responses.getTotalPages())
+                                                .size(responses.getSize())
+                                                .build())
+                                .build();
+        }
+
+        @GetMapping(path = "/api/contacts", produces = { MediaType.APPLICATION_JSON_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE })
         public WebResponse<List<ContactResponse>> search(User user,
                         @RequestParam(value = "name", required = false) String name,
                         @RequestParam(value = "email", required = false) String email,
                         @RequestParam(value = "phone", required = false) String phone,
                         @RequestParam(value = "page", required = true, defaultValue = "0") Integer page,
-                        @RequestParam(value = "size", required = true, defaultValue = "10") Integer size) {
+                        @RequestParam(value = "size", required = true, defaultValue = "10") Integer size,
+                        @RequestParam(value = "cursor", required = false) String cursor,
+                        @RequestParam(value = "fields", required = false) String fields,
+                        WebRequest webRequest, HttpServletResponse servletResponse) {
+                Set<ContactField> selected = ContactField.parse(fields);
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+                // Read before searching, so the tag is never newer than the results it goes out with
+                if (webRequest.checkNotModified("s" + contactServices.searchGeneration(user)
+                                + ContactField.tag(selected) + JacksonConfig.formatTag(webRequest.getHeader(HttpHeaders.ACCEPT)))) {
+                        return null;
+                }
+
                 SearchContactRequest request = SearchContactRequest.builder()
                                 .page(page)
                                 .size(size)
                                 .name(name)
                                 .phone(phone)
                                 .email(email)
+                                .cursor(cursor)
+                                .fields(selected)
                                 .build();
 
+                if (cursor != null) {
+                        Window<ContactResponse> window = contactServices.scroll(user, request);
+                        return WebResponse.<List<ContactResponse>>builder()
+                                        .data(window.getContent())
+                                        .paging(PagingResponse.builder()
+                                                        .size(size)
+                                                        .next(ContactCursor.next(window))
+                                                        .build())
+                                        .build();
+                }
+
                 Page<ContactResponse> responses = contactServices.search(user, request);
                 return WebResponse.<List<ContactResponse>>builder()
                                 .data(responses.getContent())
@@ -89,4 +227,31 @@ public class ContactController {
                                                 .build())
                                 .build();
         }
+
+        // Each field selection is its own representation, so it gets its own tag
+        private static String contactETag(long version, Set<ContactField> fields) {
+                return "v" + version + ContactField.tag(fields);
+        }
+
+        // "*" or no header means any version; a tag that is not one of ours can never match
+        private static Long ifMatchVersion(String ifMatch) {
+                if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+                        return null;
+                }
+
+                String tag = ifMatch.strip();
+                if (tag.startsWith("W/")) {
+                        tag = tag.substring(2);
+                }
+                tag = tag.replace("\"", "");
+                // A tag from a ?fields= or binary read still names the version
+                if (tag.indexOf('.') >= 0) {
+                        tag = tag.substring(0, tag.indexOf('.'));
+                }
+                try {
+                        return tag.startsWith("v") ? Long.parseLong(tag.substring(1)) : -1L;
+                } catch (NumberFormatException e) {
+                        return -1L;
+                }
+        }
 }
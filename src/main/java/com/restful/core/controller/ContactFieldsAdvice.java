@@ -0,0 +1,40 @@
+package com.restful.core.controller;
+
+import java.util.Set;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.restful.core.model.Contact.ContactField;
+
+/**
+ * Writes only the contact properties named in {@code ?fields=}; the others
+ * are left out of the response rather than sent as null.
+ */
+@RestControllerAdvice(assignableTypes = ContactController.class)
+public class ContactFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+            MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+
+        String fields = servletRequest.getServletRequest().getParameter("fields");
+        if (fields == null) {
+            return;
+        }
+
+        // Already parsed once by the handler, so this cannot fail
+        Set<ContactField> selected = ContactField.parse(fields);
+        if (!ContactField.isAll(selected)) {
+            bodyContainer.setFilters(ContactField.filter(selected));
+        }
+    }
+}
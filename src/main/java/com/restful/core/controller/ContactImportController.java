@@ -0,0 +1,41 @@
+package com.restful.core.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.restful.core.entity.User;
+import com.restful.core.imports.ImportFormat;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Contact.ImportJobResponse;
+import com.restful.core.services.ContactImportServices;
+
+@RestController
+public class ContactImportController {
+        @Autowired
+        private ContactImportServices contactImportServices;
+
+        @PostMapping(path = "/api/contacts/imports", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public WebResponse<ImportJobResponse> start(User user,
+                        @RequestParam(value = "format", defaultValue = "csv") String format,
+                        @RequestPart("file") MultipartFile file) {
+                ImportJobResponse response = contactImportServices.start(user, ImportFormat.of(format), file);
+                return WebResponse.<ImportJobResponse>builder()
+                                .data(response)
+                                .build();
+        }
+
+        @GetMapping(path = "/api/contacts/imports/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+        public WebResponse<ImportJobResponse> status(User user, @PathVariable("jobId") String jobId) {
+                ImportJobResponse response = contactImportServices.status(user, jobId);
+                return WebResponse.<ImportJobResponse>builder()
+                                .data(response)
+                                .build();
+        }
+}
@@ -1,5 +1,6 @@
 package com.restful.core.controller;
 
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,14 @@ public class ErrorController {
                 .body(WebResponse.<String>builder().errors(exception.getMessage()).build());
     }
 
+    // Usually no pooled connection became free within the connection timeout
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<WebResponse<String>> cannotCreateTransactionException(
+            CannotCreateTransactionException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(WebResponse.<String>builder().errors("Server is busy, try again later").build());
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<WebResponse<String>> apiException(ResponseStatusException exception) {
         return ResponseEntity.status(exception.getStatusCode())
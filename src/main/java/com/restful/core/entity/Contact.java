@@ -1,14 +1,26 @@
 package com.restful.core.entity;
 
 import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.restful.core.ids.TimeOrderedId;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,10 +31,15 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = @Index(name = "idx_contacts_username_first_name_id", columnList = "username, first_name, id"))
 public class Contact {
+    public static final int ADDRESS_BATCH_SIZE = 100;
+
     @Id
-    private String id;
+    @TimeOrderedId
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id;
 
     @Column(name = "first_name")
     private String firstName;
@@ -31,10 +48,25 @@ public class Contact {
     private String phone;
     private String email;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "username", referencedColumnName = "username")
     private User user;
 
+    // Touching one contact's addresses loads them for up to 100 contacts in the session at once
     @OneToMany(mappedBy = "contact")
+    @BatchSize(size = Contact.ADDRESS_BATCH_SIZE)
     private List<Address> addresses;
+
+    // Bumped on every update; doubles as the contact's ETag
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Long updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
 }
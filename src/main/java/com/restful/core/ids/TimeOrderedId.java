@@ -0,0 +1,21 @@
+package com.restful.core.ids;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Marks a {@link java.util.UUID} ID that is assigned from
+ * {@link TimeOrderedUuid} when the entity is persisted. Swap the generator
+ * here to change how every annotated entity gets its keys.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface TimeOrderedId {
+}
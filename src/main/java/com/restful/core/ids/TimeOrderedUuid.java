@@ -0,0 +1,45 @@
+package com.restful.core.ids;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit millisecond timestamp, then a 12-bit
+ * counter, then 62 random bits. Values from this JVM are strictly increasing,
+ * so rows keyed by them are appended at the right edge of a B-tree instead of
+ * landing on random pages. If more than 4096 IDs are drawn in one
+ * millisecond the counter carries into the timestamp, which then runs
+ * slightly ahead of the clock until it catches up.
+ */
+public final class TimeOrderedUuid {
+    // Timestamp shifted left by 12, plus the counter
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSignificant = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Parses the canonical 36-character form, in either case; returns null
+     * for anything else, so a malformed ID can be treated like an unknown one.
+     */
+    public static UUID parse(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.restful.core.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one record at a time, so only the current record is
+ * ever held in memory.
+ */
+public interface ContactRecordReader extends Closeable {
+    /**
+     * The next record, or null at the end of the file.
+     */
+    ImportRecord next() throws IOException;
+}
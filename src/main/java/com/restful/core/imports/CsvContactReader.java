@@ -0,0 +1,48 @@
+package com.restful.core.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * CSV with a header row naming the columns {@code firstName}, {@code lastName},
+ * {@code email}, {@code phone}, {@code street}, {@code city},
+ * {@code province}, {@code country} and {@code postalCode}, in any order.
+ * Other columns are ignored, so an export can be imported back as is.
+ */
+public class CsvContactReader implements ContactRecordReader {
+    private static final CsvMapper MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .build();
+
+    private final MappingIterator<Map<String, String>> rows;
+
+    public CsvContactReader(InputStream in) throws IOException {
+        this.rows = MAPPER.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(in);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (!rows.hasNextValue()) {
+            return null;
+        }
+
+        Map<String, String> row = rows.nextValue();
+        return new ImportRecord(rows.getCurrentLocation().getLineNr(),
+                row.get("firstName"), row.get("lastName"), row.get("email"), row.get("phone"),
+                row.get("street"), row.get("city"), row.get("province"), row.get("country"), row.get("postalCode"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        rows.close();
+    }
+}
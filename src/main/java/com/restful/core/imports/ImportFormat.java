@@ -0,0 +1,25 @@
+package com.restful.core.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum ImportFormat {
+    CSV,
+    VCARD;
+
+    public static ImportFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported import format");
+        }
+    }
+
+    public ContactRecordReader open(InputStream in) throws IOException {
+        return this == CSV ? new CsvContactReader(in) : new VCardContactReader(in);
+    }
+}
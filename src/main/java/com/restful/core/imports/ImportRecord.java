@@ -0,0 +1,36 @@
+package com.restful.core.imports;
+
+import java.util.Locale;
+
+/**
+ * One contact read from an import file, with its optional address. Fields are
+ * as found in the file until {@link #normalized()} is applied.
+ */
+public record ImportRecord(long line, String firstName, String lastName, String email, String phone,
+        String street, String city, String province, String country, String postalCode) {
+
+    public boolean hasAddress() {
+        return street != null || city != null || province != null || country != null || postalCode != null;
+    }
+
+    /**
+     * Trims every field and drops empty ones, lower-cases the email and strips
+     * spaces, dashes, dots and parentheses from the phone number.
+     */
+    public ImportRecord normalized() {
+        String normalizedEmail = clean(email);
+        String normalizedPhone = clean(phone);
+        return new ImportRecord(line, clean(firstName), clean(lastName),
+                normalizedEmail == null ? null : normalizedEmail.toLowerCase(Locale.ROOT),
+                normalizedPhone == null ? null : normalizedPhone.replaceAll("[\\s\\-.()]", ""),
+                clean(street), clean(city), clean(province), clean(country), clean(postalCode));
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,169 @@
+package com.restful.core.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * vCard 3.0/4.0 reader covering the properties a contact has: {@code N} (or
+ * {@code FN} when there is no {@code N}), the first {@code EMAIL}, the first
+ * {@code TEL} and the first {@code ADR}. Folded lines are unfolded and
+ * backslash escapes in values are resolved; everything else is skipped.
+ */
+public class VCardContactReader implements ContactRecordReader {
+    private final BufferedReader reader;
+
+    private String lookahead;
+
+    private long lineNumber;
+
+    // Line number where the logical line last returned by nextLine() starts
+    private long currentLine;
+
+    public VCardContactReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        boolean inCard = false;
+        long startLine = 0;
+        String fullName = null;
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        String phone = null;
+        List<String> address = null;
+
+        String line;
+        while ((line = nextLine()) != null) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+
+            String name = propertyName(line.substring(0, colon));
+            String value = line.substring(colon + 1);
+
+            if (name.equals("BEGIN") && value.equalsIgnoreCase("VCARD")) {
+                inCard = true;
+                startLine = currentLine;
+                fullName = firstName = lastName = email = phone = null;
+                address = null;
+            } else if (inCard && name.equals("END") && value.equalsIgnoreCase("VCARD")) {
+                if (firstName == null && lastName == null) {
+                    firstName = fullName;
+                }
+                return new ImportRecord(startLine, firstName, lastName, email, phone,
+                        part(address, 2), part(address, 3), part(address, 4), part(address, 6), part(address, 5));
+            } else if (inCard) {
+                switch (name) {
+                    case "FN" -> fullName = unescape(value);
+                    case "N" -> {
+                        List<String> parts = split(value);
+                        lastName = part(parts, 0);
+                        firstName = part(parts, 1);
+                    }
+                    case "EMAIL" -> email = email == null ? unescape(value) : email;
+                    case "TEL" -> phone = phone == null ? telephone(unescape(value)) : phone;
+                    case "ADR" -> address = address == null ? split(value) : address;
+                    default -> {
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Joins continuation lines, which start with a space or tab, onto the line before.
+    private String nextLine() throws IOException {
+        String line = lookahead != null ? lookahead : readLine();
+        lookahead = null;
+        if (line == null) {
+            return null;
+        }
+        currentLine = lineNumber;
+
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = readLine()) != null && !next.isEmpty()
+                && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            unfolded.append(next, 1, next.length());
+        }
+        lookahead = next;
+        return unfolded == null ? line : unfolded.toString();
+    }
+
+    private String readLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    // "item1.TEL;TYPE=cell" -> "TEL"
+    private static String propertyName(String nameAndParameters) {
+        int semicolon = nameAndParameters.indexOf(';');
+        String name = semicolon < 0 ? nameAndParameters : nameAndParameters.substring(0, semicolon);
+        int dot = name.lastIndexOf('.');
+        return name.substring(dot + 1).strip().toUpperCase(Locale.ROOT);
+    }
+
+    // vCard 4.0 may give the number as a URI: "tel:+1-555-0100"
+    private static String telephone(String value) {
+        return value.regionMatches(true, 0, "tel:", 0, 4) ? value.substring(4) : value;
+    }
+
+    private static String part(List<String> parts, int index) {
+        return parts == null || index >= parts.size() ? null : parts.get(index);
+    }
+
+    // Splits a structured value on unescaped semicolons, resolving escapes in each part.
+    private static List<String> split(String value) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                current.append(escaped(value.charAt(++i)));
+            } else if (c == ';') {
+                parts.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        parts.add(current.toString());
+        return parts;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            unescaped.append(c == '\\' && i + 1 < value.length() ? escaped(value.charAt(++i)) : c);
+        }
+        return unescaped.toString();
+    }
+
+    private static char escaped(char c) {
+        return c == 'n' || c == 'N' ? '\n' : c;
+    }
+}
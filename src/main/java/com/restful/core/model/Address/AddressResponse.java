@@ -0,0 +1,27 @@
+package com.restful.core.model.Address;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AddressResponse {
+    private String id;
+    private String street;
+    private String city;
+    private String province;
+    private String country;
+    private String postalCode;
+
+    // For JPQL constructor expressions, which select the ID as stored
+    public AddressResponse(UUID id, String street, String city, String province, String country,
+            String postalCode) {
+        this(id.toString(), street, city, province, country, postalCode);
+    }
+}
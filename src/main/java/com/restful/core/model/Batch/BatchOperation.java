@@ -0,0 +1,22 @@
+package com.restful.core.model.Batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchOperation {
+    // GET, POST, PUT, PATCH or DELETE
+    private String method;
+
+    // As it would be requested on its own, query string included
+    private String path;
+
+    private JsonNode body;
+}
@@ -0,0 +1,21 @@
+package com.restful.core.model.Batch;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchRequest {
+    @NotEmpty
+    private List<BatchOperation> operations;
+
+    // Run all writes in one transaction, rolled back together if one fails
+    private boolean transactional;
+}
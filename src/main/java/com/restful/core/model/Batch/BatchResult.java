@@ -0,0 +1,25 @@
+package com.restful.core.model.Batch;
+
+import com.restful.core.model.PagingResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchResult {
+    private Integer index;
+
+    // HTTP status the request would have had on its own
+    private Integer status;
+
+    private Object data;
+
+    private String errors;
+
+    private PagingResponse paging;
+}
@@ -0,0 +1,14 @@
+package com.restful.core.model.Contact;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum BulkAction {
+    @JsonProperty("create")
+    CREATE,
+
+    @JsonProperty("update")
+    UPDATE,
+
+    @JsonProperty("delete")
+    DELETE
+}
@@ -0,0 +1,22 @@
+package com.restful.core.model.Contact;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkContactOperation {
+    private BulkAction action;
+
+    // Required for update and delete
+    private String id;
+
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+}
@@ -0,0 +1,21 @@
+package com.restful.core.model.Contact;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkContactResult {
+    private Integer index;
+
+    private String id;
+
+    // HTTP status the operation would have had on its own
+    private Integer status;
+
+    private String error;
+}
@@ -0,0 +1,86 @@
+package com.restful.core.model.Contact;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Properties of {@link ContactResponse} a client can pick with
+ * {@code ?fields=}. Unpicked columns are left out of the SQL select list
+ * where the query allows it and out of the serialized response always.
+ */
+@Getter
+@AllArgsConstructor
+public enum ContactField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    PHONE("phone"),
+    VERSION("version");
+
+    // Jackson filter ID on ContactResponse
+    public static final String FILTER = "contactFields";
+
+    private final String property;
+
+    /**
+     * Parses a comma-separated list of property names; no list means every
+     * field.
+     */
+    public static Set<ContactField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(ContactField.class);
+        }
+
+        Set<ContactField> selected = EnumSet.noneOf(ContactField.class);
+        for (String name : fields.split(",")) {
+            selected.add(of(name.strip()));
+        }
+        return selected;
+    }
+
+    public static boolean isAll(Set<ContactField> fields) {
+        return fields == null || fields.size() == values().length;
+    }
+
+    /**
+     * Suffix that tells the representations of different field selections
+     * apart in an ETag; empty for all fields.
+     */
+    public static String tag(Set<ContactField> fields) {
+        if (isAll(fields)) {
+            return "";
+        }
+
+        int mask = 0;
+        for (ContactField field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        return ".f" + Integer.toHexString(mask);
+    }
+
+    public static FilterProvider filter(Set<ContactField> fields) {
+        return new SimpleFilterProvider().addFilter(FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(fields.stream().map(ContactField::getProperty)
+                        .toArray(String[]::new)));
+    }
+
+    private static ContactField of(String property) {
+        for (ContactField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + property);
+    }
+}
@@ -0,0 +1,20 @@
+package com.restful.core.model.Contact;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ContactLookupResponse {
+    // In the order the IDs were requested
+    private List<ContactResponse> contacts;
+
+    // Requested IDs that are malformed, deleted or owned by someone else
+    private List<String> missing;
+}
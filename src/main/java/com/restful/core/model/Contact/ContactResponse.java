@@ -1,5 +1,9 @@
 package com.restful.core.model.Contact;
 
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,10 +13,17 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(ContactField.FILTER)
 public class ContactResponse {
     private String id;
     private String firstName;
     private String lastName;
     private String email;
     private String phone;
+    private Long version;
+
+    // For JPQL constructor expressions, which select the ID as stored
+    public ContactResponse(UUID id, String firstName, String lastName, String email, String phone, Long version) {
+        this(id.toString(), firstName, lastName, email, phone, version);
+    }
 }
@@ -0,0 +1,23 @@
+package com.restful.core.model.Contact;
+
+import java.util.List;
+
+import com.restful.core.model.Address.AddressResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContactWithAddressesResponse {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+    private List<AddressResponse> addresses;
+}
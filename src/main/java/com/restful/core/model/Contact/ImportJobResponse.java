@@ -0,0 +1,36 @@
+package com.restful.core.model.Contact;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportJobResponse {
+    private String id;
+
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String state;
+
+    private String format;
+
+    private Long rowsRead;
+
+    private Long rowsImported;
+
+    private Long rowsFailed;
+
+    private Double rowsPerSecond;
+
+    // The first errors found, one per rejected row
+    private List<String> errors;
+
+    private Long startedAt;
+
+    private Long finishedAt;
+}
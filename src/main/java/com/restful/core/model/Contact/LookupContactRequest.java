@@ -0,0 +1,25 @@
+package com.restful.core.model.Contact;
+
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LookupContactRequest {
+    @NotEmpty
+    private List<String> ids;
+
+    // From ?fields=, null for all fields
+    @JsonIgnore
+    private Set<ContactField> fields;
+}
@@ -1,5 +1,7 @@
 package com.restful.core.model.Contact;
 
+import java.util.Set;
+
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,4 +22,10 @@ public class SearchContactRequest {
 
     @NotNull
     private Integer size;
+
+    // Set (possibly empty) to page by cursor instead of page number
+    private String cursor;
+
+    // Null for all fields
+    private Set<ContactField> fields;
 }
@@ -13,4 +13,7 @@ public class PagingResponse {
     private Integer currentPage;
     private Integer totalPage;
     private Integer size;
+
+    // Cursor for the next page in cursor mode; null on the last page
+    private String next;
 }
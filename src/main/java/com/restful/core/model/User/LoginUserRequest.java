@@ -1,5 +1,7 @@
 package com.restful.core.model.User;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -19,4 +21,7 @@ public class LoginUserRequest {
     @NotBlank
     @Size(max = 100)
     private String password;
+
+    @JsonIgnore
+    private String clientAddress;
 }
@@ -0,0 +1,38 @@
+package com.restful.core.repository;
+
+import com.restful.core.entity.Address;
+import com.restful.core.model.Address.AddressResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AddressRepository extends JpaRepository<Address, UUID> {
+    @Query("select a from Address a "
+            + "where a.id = :id and a.contact.id = :contactId and a.contact.user.username = :username")
+    Optional<Address> findByUsernameAndContactIdAndId(@Param("username") String username,
+            @Param("contactId") UUID contactId, @Param("id") UUID id);
+
+    @Query("select new com.restful.core.model.Address.AddressResponse("
+            + "a.id, a.street, a.city, a.province, a.country, a.postalCode) from Address a "
+            + "where a.id = :id and a.contact.id = :contactId and a.contact.user.username = :username")
+    Optional<AddressResponse> findResponseByUsernameAndContactIdAndId(@Param("username") String username,
+            @Param("contactId") UUID contactId, @Param("id") UUID id);
+
+    @Query("select new com.restful.core.model.Address.AddressResponse("
+            + "a.id, a.street, a.city, a.province, a.country, a.postalCode) from Address a "
+            + "where a.contact.id = :contactId order by a.id")
+    List<AddressResponse> findResponsesByContactId(@Param("contactId") UUID contactId);
+
+    @Modifying
+    @Query("delete from Address a where a.contact.id in :contactIds")
+    int deleteByContactIdIn(@Param("contactIds") Collection<UUID> contactIds);
+}
@@ -2,14 +2,29 @@ package com.restful.core.repository;
 
 import com.restful.core.entity.Contact;
 import com.restful.core.entity.User;
+import com.restful.core.model.Contact.ContactResponse;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, String>, JpaSpecificationExecutor<Contact> {
-    Optional<Contact> findFirstByUserAndId(User user, String id);
+public interface ContactRepository
+        extends JpaRepository<Contact, UUID>, JpaSpecificationExecutor<Contact>, ContactRepositoryCustom {
+    Optional<Contact> findFirstByUserAndId(User user, UUID id);
+
+    boolean existsByUserAndId(User user, UUID id);
+
+    @Query("select new com.restful.core.model.Contact.ContactResponse(c.id, c.firstName, c.lastName, c.email, c.phone, c.version) "
+            + "from Contact c where c.user.username = :username")
+    List<ContactResponse> findSearchEntriesByUsername(@Param("username") String username);
+
+    @Query("select c.version from Contact c where c.user.username = :username and c.id = :id")
+    Optional<Long> findVersionByUsernameAndId(@Param("username") String username, @Param("id") UUID id);
 }
@@ -0,0 +1,52 @@
+package com.restful.core.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.restful.core.entity.Contact;
+import com.restful.core.model.Contact.ContactField;
+import com.restful.core.model.Contact.ContactResponse;
+
+/**
+ * Specification-based contact reads that select straight into
+ * {@link ContactResponse}, so no entity is hydrated or tracked. Reads taking
+ * {@code fields} select only those of the optional columns (last name, email
+ * and phone) and leave the rest null; ID, first name and version are always
+ * read, as ordering, cursors and ETags depend on them. Null fields means all.
+ */
+public interface ContactRepositoryCustom {
+    Page<ContactResponse> findAllResponses(Specification<Contact> spec, Pageable pageable, Set<ContactField> fields);
+
+    List<ContactResponse> findResponses(String username, Collection<UUID> ids, Set<ContactField> fields);
+
+    /**
+     * Up to {@code limit} matches ordered by first name and ID, starting after
+     * the given first name and ID, or from the beginning if {@code afterId} is
+     * null.
+     */
+    List<ContactResponse> findResponsesAfter(Specification<Contact> spec, String afterFirstName, UUID afterId,
+            int limit, Set<ContactField> fields);
+
+    /**
+     * All of a user's contacts ordered by first name and ID, streamed forward-only
+     * one row at a time. Must be consumed and closed inside a transaction, and
+     * the connection runs nothing else until it is closed.
+     */
+    Stream<ContactResponse> streamResponses(String username);
+
+    /**
+     * Sets the given attributes of one of the user's contacts in a single
+     * UPDATE, bumping its version, without loading it first. When
+     * {@code version} is not null the row only matches at that version.
+     * Returns the number of rows updated.
+     */
+    int updateFields(String username, UUID id, Long version, Map<String, Object> values);
+}
@@ -0,0 +1,146 @@
+package com.restful.core.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.restful.core.entity.Contact;
+import com.restful.core.model.Contact.ContactField;
+import com.restful.core.model.Contact.ContactResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class ContactRepositoryCustomImpl implements ContactRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ContactResponse> findAllResponses(Specification<Contact> spec, Pageable pageable,
+            Set<ContactField> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ContactResponse> query = builder.createQuery(ContactResponse.class);
+        Root<Contact> root = query.from(Contact.class);
+        query.select(response(builder, root, fields)).where(spec.toPredicate(root, query, builder));
+
+        List<ContactResponse> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        Root<Contact> countRoot = countQuery.from(Contact.class);
+        countQuery.select(builder.count(countRoot)).where(spec.toPredicate(countRoot, countQuery, builder));
+
+        // Skips the count when the page itself shows where the results end
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> entityManager.createQuery(countQuery).getSingleResult());
+    }
+
+    @Override
+    public List<ContactResponse> findResponses(String username, Collection<UUID> ids, Set<ContactField> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ContactResponse> query = builder.createQuery(ContactResponse.class);
+        Root<Contact> root = query.from(Contact.class);
+        query.select(response(builder, root, fields)).where(
+                builder.equal(root.get("user").get("username"), username),
+                root.get("id").in(ids));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<ContactResponse> findResponsesAfter(Specification<Contact> spec, String afterFirstName,
+            UUID afterId, int limit, Set<ContactField> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ContactResponse> query = builder.createQuery(ContactResponse.class);
+        Root<Contact> root = query.from(Contact.class);
+
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (afterId != null) {
+            predicate = builder.and(predicate, builder.or(
+                    builder.greaterThan(root.get("firstName"), afterFirstName),
+                    builder.and(
+                            builder.equal(root.get("firstName"), afterFirstName),
+                            builder.greaterThan(root.<UUID>get("id"), afterId))));
+        }
+
+        query.select(response(builder, root, fields))
+                .where(predicate)
+                .orderBy(builder.asc(root.get("firstName")), builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ContactResponse> streamResponses(String username) {
+        return entityManager.createQuery("select new com.restful.core.model.Contact.ContactResponse("
+                + "c.id, c.firstName, c.lastName, c.email, c.phone, c.version) from Contact c "
+                + "where c.user.username = :username order by c.firstName, c.id", ContactResponse.class)
+                .setParameter("username", username)
+                // Connector/J streams row by row for this fetch size, without a server-side cursor
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public int updateFields(String username, UUID id, Long version, Map<String, Object> values) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaUpdate<Contact> update = builder.createCriteriaUpdate(Contact.class);
+        Root<Contact> root = update.from(Contact.class);
+        values.forEach(update::set);
+        // Bulk updates skip @Version and @PreUpdate, so both are maintained here
+        update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L));
+        update.set(root.<Long>get("updatedAt"), System.currentTimeMillis());
+
+        Predicate predicate = builder.and(
+                builder.equal(root.get("user").get("username"), username),
+                builder.equal(root.get("id"), id));
+        if (version != null) {
+            predicate = builder.and(predicate, builder.equal(root.get("version"), version));
+        }
+
+        return entityManager.createQuery(update.where(predicate)).executeUpdate();
+    }
+
+    private static CompoundSelection<ContactResponse> response(CriteriaBuilder builder, Root<Contact> root,
+            Set<ContactField> fields) {
+        return builder.construct(ContactResponse.class,
+                root.get("id"),
+                root.get("firstName"),
+                column(builder, root, fields, ContactField.LAST_NAME),
+                column(builder, root, fields, ContactField.EMAIL),
+                column(builder, root, fields, ContactField.PHONE),
+                root.get("version"));
+    }
+
+    // An unselected column becomes a NULL literal, so the row is never read for it
+    private static Expression<String> column(CriteriaBuilder builder, Root<Contact> root, Set<ContactField> fields,
+            ContactField field) {
+        return fields == null || fields.contains(field) ? root.get(field.getProperty())
+                : builder.nullLiteral(String.class);
+    }
+}
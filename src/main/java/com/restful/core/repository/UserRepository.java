@@ -5,9 +5,42 @@ import com.restful.core.entity.User;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findFirstByToken(String token);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.username = :username and u.password = :oldPassword")
+    int updatePassword(@Param("username") String username, @Param("oldPassword") String oldPassword,
+            @Param("newPassword") String newPassword);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.token = :token, u.tokenExpiredAt = :tokenExpiredAt where u.username = :username")
+    int updateToken(@Param("username") String username, @Param("token") String token,
+            @Param("tokenExpiredAt") Long tokenExpiredAt);
+
+    /**
+     * Changes name and password in one statement; null arguments keep the
+     * current value.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.name = coalesce(:name, u.name), u.password = coalesce(:password, u.password) "
+            + "where u.username = :username")
+    int updateProfile(@Param("username") String username, @Param("name") String name,
+            @Param("password") String password);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET token = NULL, token_expired_at = NULL "
+            + "WHERE token_expired_at < :now ORDER BY token_expired_at LIMIT :limit", nativeQuery = true)
+    int clearExpiredTokens(@Param("now") long now, @Param("limit") int limit);
 }
@@ -13,7 +13,11 @@ import org.springframework.web.server.ResponseStatusException;
 
 import com.restful.core.entity.User;
 import com.restful.core.repository.UserRepository;
+import com.restful.core.security.SignedTokens;
+import com.restful.core.security.TokenCache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Component
@@ -21,6 +25,15 @@ public class UserArgumentResolver implements HandlerMethodArgumentResolver {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private SignedTokens signedTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
         return User.class.equals(parameter.getParameterType());
@@ -35,8 +48,22 @@ public class UserArgumentResolver implements HandlerMethodArgumentResolver {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
 
-        User user = userRepository.findFirstByToken(token).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (signedTokens.isSigned(token)) {
+            User user = resolveSigned(token);
+            sample.stop(timer("signed"));
+            return user;
+        }
+
+        String source = "cache";
+        User user = tokenCache.get(token).orElse(null);
+        if (user == null) {
+            source = "database";
+            user = userRepository.findFirstByToken(token).orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+            tokenCache.put(user);
+        }
+        sample.stop(timer(source));
 
         if (user.getTokenExpiredAt() < System.currentTimeMillis()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token expired");
@@ -45,4 +72,24 @@ public class UserArgumentResolver implements HandlerMethodArgumentResolver {
         return user;
     }
 
+    // Signed tokens carry their own username and expiry, so the principal is a
+    // lazy reference that only hits the database if a handler reads its state.
+    private User resolveSigned(String token) {
+        SignedTokens.Claims claims = signedTokens.verify(token).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+
+        if (claims.expiredAt() < System.currentTimeMillis()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token expired");
+        }
+
+        return userRepository.getReferenceById(claims.username());
+    }
+
+    // Time to find the caller for a valid token, by where it was found
+    private Timer timer(String source) {
+        return Timer.builder("auth.resolve.duration")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
 }
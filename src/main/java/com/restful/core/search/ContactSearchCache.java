@@ -0,0 +1,167 @@
+package com.restful.core.search;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restful.core.entity.User;
+import com.restful.core.model.Contact.ContactField;
+import com.restful.core.model.Contact.ContactResponse;
+import com.restful.core.model.Contact.SearchContactRequest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caches search results per user and request. Every key carries the user's
+ * current generation; a committed change to the user's contacts moves the
+ * user to a new generation, so all of their cached pages become unreachable
+ * at once and age out through normal eviction. Generations come from one
+ * global counter, seeded from the clock at startup, so a user whose
+ * generation was evicted or who outlived a restart can never get an old one
+ * back. That also makes the generation usable as an ETag for search results,
+ * which is why it is tracked even when result caching is disabled.
+ */
+@Component
+public class ContactSearchCache {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.contacts.search-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${app.contacts.search-cache.maximum-weight}")
+    private long maximumWeight;
+
+    @Value("${app.contacts.search-cache.time-to-live}")
+    private Duration timeToLive;
+
+    @Value("${app.contacts.search-cache.maximum-users}")
+    private long maximumUsers;
+
+    private final AtomicLong nextGeneration = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private Cache<String, Long> generations;
+
+    private Cache<Key, Object> results;
+
+    private record Key(String username, long generation, String name, String email, String phone, Integer page,
+            Integer size, String cursor, Set<ContactField> fields) {
+    }
+
+    @PostConstruct
+    void init() {
+        generations = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .build();
+
+        results = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(ContactSearchCache::weigh)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "contacts.search");
+        Gauge.builder("contacts.search.cache.hit.ratio", results, cache -> cache.stats().hitRate())
+                .description("Share of contact searches answered from the cache")
+                .register(meterRegistry);
+    }
+
+    public Page<ContactResponse> page(User user, SearchContactRequest request, Supplier<Page<ContactResponse>> search) {
+        return get(user, request, search);
+    }
+
+    public Window<ContactResponse> window(User user, SearchContactRequest request,
+            Supplier<Window<ContactResponse>> search) {
+        return get(user, request, search);
+    }
+
+    /**
+     * Moves the user to a new generation once the current transaction
+     * commits, or right away outside a transaction.
+     */
+    public void invalidate(User user) {
+        String username = user.getUsername();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generations.put(username, nextGeneration.incrementAndGet());
+                }
+            });
+        } else {
+            generations.put(username, nextGeneration.incrementAndGet());
+        }
+    }
+
+    public long generation(User user) {
+        return generations.get(user.getUsername(), username -> nextGeneration.incrementAndGet());
+    }
+
+    public void clear() {
+        generations.invalidateAll();
+        results.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(User user, SearchContactRequest request, Supplier<T> search) {
+        if (!enabled) {
+            return search.get();
+        }
+
+        // Read before searching, so a change committed meanwhile lands under a newer key
+        long generation = generation(user);
+        Key key = new Key(user.getUsername(), generation, normalize(request.getName()),
+                normalize(request.getEmail()), normalize(request.getPhone()),
+                request.getCursor() == null ? request.getPage() : null, request.getSize(), request.getCursor(),
+                ContactField.isAll(request.getFields()) ? null : request.getFields());
+
+        // Searched outside the cache's lock: a database read under it would pin a
+        // virtual thread to its carrier. Identical concurrent misses both search.
+        Object result = results.getIfPresent(key);
+        if (result == null) {
+            result = search.get();
+            results.put(key, result);
+        }
+        return (T) result;
+    }
+
+    private static String normalize(String filter) {
+        return filter == null ? null : filter.toLowerCase(Locale.ROOT);
+    }
+
+    // Rough size in bytes: string contents plus a fixed overhead per contact
+    @SuppressWarnings("unchecked")
+    private static int weigh(Key key, Object result) {
+        List<ContactResponse> contacts = result instanceof Page<?> page
+                ? (List<ContactResponse>) page.getContent()
+                : ((Window<ContactResponse>) result).getContent();
+
+        int weight = 128;
+        for (ContactResponse contact : contacts) {
+            weight += 96 + 2 * (length(contact.getId()) + length(contact.getFirstName())
+                    + length(contact.getLastName()) + length(contact.getEmail()) + length(contact.getPhone()));
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,178 @@
+package com.restful.core.search;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.Contact.ContactResponse;
+import com.restful.core.model.Contact.SearchContactRequest;
+import com.restful.core.repository.ContactRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user {@link ContactTrigramIndex}es, built from the database the first
+ * time a user searches and kept current by
+ * {@link com.restful.core.services.ContactServices} after each committed
+ * create, update and delete. The cache is bounded by the total number of
+ * indexed contacts; an evicted user is simply rebuilt on the next search.
+ * <p>
+ * Indexes are loaded by the first searching thread outside of any cache lock,
+ * while later searchers wait on its future. Holding the map's lock across the
+ * query would pin a virtual thread to its carrier for the whole load.
+ */
+@Component
+public class ContactSearchIndex {
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.contacts.search-index.enabled}")
+    private boolean enabled;
+
+    @Value("${app.contacts.search-index.maximum-contacts}")
+    private long maximumContacts;
+
+    private AsyncCache<String, ContactTrigramIndex> indexes;
+
+    @PostConstruct
+    void init() {
+        indexes = Caffeine.newBuilder()
+                .maximumWeight(maximumContacts)
+                .weigher((String username, ContactTrigramIndex index) -> Math.max(1, index.size()))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes.synchronous(), "contacts.search.index");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * IDs of the user's contacts matching the request's filters, ordered by
+     * first name and then ID.
+     */
+    public List<String> search(User user, SearchContactRequest request) {
+        ContactTrigramIndex index = index(user.getUsername());
+        return index.search(request.getName(), request.getEmail(), request.getPhone());
+    }
+
+    /**
+     * Up to {@code limit} IDs of matching contacts ordered after the given
+     * first name and ID, in the same order as {@link #search}.
+     */
+    public List<String> searchAfter(User user, SearchContactRequest request, String afterFirstName, String afterId,
+            int limit) {
+        ContactTrigramIndex index = index(user.getUsername());
+        return index.searchAfter(request.getName(), request.getEmail(), request.getPhone(), afterFirstName, afterId,
+                limit);
+    }
+
+    public void saved(User user, Contact contact) {
+        saved(user, contact.getId().toString(), contact.getFirstName(), contact.getLastName(), contact.getEmail(),
+                contact.getPhone());
+    }
+
+    public void saved(User user, ContactResponse contact) {
+        saved(user, contact.getId(), contact.getFirstName(), contact.getLastName(), contact.getEmail(),
+                contact.getPhone());
+    }
+
+    public void deleted(User user, String contactId) {
+        afterCommit(user, index -> index.remove(contactId));
+    }
+
+    public void clear() {
+        indexes.synchronous().invalidateAll();
+    }
+
+    private void saved(User user, String id, String firstName, String lastName, String email, String phone) {
+        afterCommit(user, index -> index.put(id, firstName, lastName, email, phone));
+    }
+
+    // A change to an index that is still loading is chained after the load, in
+    // commit order, so it is never lost; puts and removes are idempotent, so it
+    // does not matter whether the load already saw it. Users without an index
+    // are skipped.
+    private void afterCommit(User user, Consumer<ContactTrigramIndex> change) {
+        if (!enabled) {
+            return;
+        }
+
+        Runnable apply = () -> indexes.asMap().computeIfPresent(user.getUsername(),
+                (username, index) -> index.thenApply(loaded -> {
+                    change.accept(loaded);
+                    return loaded;
+                }));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private ContactTrigramIndex index(String username) {
+        // Looked up through the cache first so hits and misses are recorded
+        CompletableFuture<ContactTrigramIndex> existing = indexes.getIfPresent(username);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        CompletableFuture<ContactTrigramIndex> loading = new CompletableFuture<>();
+        existing = indexes.asMap().putIfAbsent(username, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            loading.complete(load(username));
+        } catch (RuntimeException e) {
+            // A failed future is dropped by the cache, so the next search loads again
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        return loading.join();
+    }
+
+    // Another thread's failed load is rethrown as itself, so it maps to the same status as it did there
+    private static ContactTrigramIndex await(CompletableFuture<ContactTrigramIndex> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ContactTrigramIndex load(String username) {
+        ContactTrigramIndex index = new ContactTrigramIndex();
+        contactRepository.findSearchEntriesByUsername(username).forEach(contact -> index.put(contact.getId(),
+                contact.getFirstName(), contact.getLastName(), contact.getEmail(), contact.getPhone()));
+        return index;
+    }
+}
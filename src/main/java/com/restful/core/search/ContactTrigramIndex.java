@@ -0,0 +1,234 @@
+package com.restful.core.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over one user's contacts, answering the same substring
+ * filters as the {@code LIKE '%x%'} search in
+ * {@link com.restful.core.services.ContactServices}.
+ * <p>
+ * Each contact gets an ordinal and every trigram of its name, email and phone
+ * maps to the ordinals containing it. A search walks the shortest posting list
+ * among the trigrams of its terms and checks each candidate against the stored
+ * values, so the result is exact. Updated and deleted contacts leave their old
+ * ordinal behind as a tombstone; the index is compacted once tombstones
+ * outnumber live entries.
+ */
+public class ContactTrigramIndex {
+    private static final int GRAM = 3;
+
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private record Entry(String id, String firstName, String lastName, String email, String phone) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::firstName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Entry::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private List<Entry> entries = new ArrayList<>();
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    private final Map<Long, Postings> namePostings = new HashMap<>();
+
+    private final Map<Long, Postings> emailPostings = new HashMap<>();
+
+    private final Map<Long, Postings> phonePostings = new HashMap<>();
+
+    public void put(String id, String firstName, String lastName, String email, String phone) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            addLocked(new Entry(id, normalize(firstName), normalize(lastName), normalize(email), normalize(phone)));
+            if (entries.size() - ordinals.size() > Math.max(ordinals.size(), COMPACT_THRESHOLD)) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of contacts matching every non-null filter, ordered by
+     * first name and then ID. The name filter matches first or last name.
+     */
+    public List<String> search(String name, String email, String phone) {
+        return searchAfter(name, email, phone, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #search}, but only contacts ordered after the given first
+     * name and ID, and at most {@code limit} of them. A null {@code afterId}
+     * starts from the beginning.
+     */
+    public List<String> searchAfter(String name, String email, String phone, String afterFirstName, String afterId,
+            int limit) {
+        String nameTerm = normalize(name);
+        String emailTerm = normalize(email);
+        String phoneTerm = normalize(phone);
+        Entry after = afterId == null ? null : new Entry(afterId, normalize(afterFirstName), null, null, null);
+
+        lock.readLock().lock();
+        try {
+            Postings candidates = null;
+            for (Postings postings : new Postings[] {
+                    shortest(namePostings, nameTerm),
+                    shortest(emailPostings, emailTerm),
+                    shortest(phonePostings, phoneTerm) }) {
+                if (postings == Postings.EMPTY) {
+                    return List.of();
+                }
+                if (postings != null && (candidates == null || postings.size < candidates.size)) {
+                    candidates = postings;
+                }
+            }
+
+            List<Entry> matches = new ArrayList<>();
+            int count = candidates == null ? entries.size() : candidates.size;
+            for (int i = 0; i < count; i++) {
+                Entry entry = entries.get(candidates == null ? i : candidates.values[i]);
+                if (entry != null && (after == null || ORDER.compare(entry, after) > 0)
+                        && matches(entry, nameTerm, emailTerm, phoneTerm)) {
+                    matches.add(entry);
+                }
+            }
+
+            matches.sort(ORDER);
+            return matches.stream().limit(limit).map(Entry::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean matches(Entry entry, String name, String email, String phone) {
+        if (name != null && !contains(entry.firstName(), name) && !contains(entry.lastName(), name)) {
+            return false;
+        }
+        if (email != null && !contains(entry.email(), email)) {
+            return false;
+        }
+        return phone == null || contains(entry.phone(), phone);
+    }
+
+    // Like SQL, a null column never matches, not even an empty filter
+    private static boolean contains(String value, String term) {
+        return value != null && value.contains(term);
+    }
+
+    /**
+     * The shortest posting list among the term's trigrams, {@link Postings#EMPTY}
+     * if one of them occurs nowhere, or null if the term is too short to narrow
+     * the search.
+     */
+    private static Postings shortest(Map<Long, Postings> postings, String term) {
+        if (term == null || term.length() < GRAM) {
+            return null;
+        }
+
+        Postings shortest = null;
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Postings candidate = postings.get(gram(term, i));
+            if (candidate == null) {
+                return Postings.EMPTY;
+            }
+            if (shortest == null || candidate.size < shortest.size) {
+                shortest = candidate;
+            }
+        }
+        return shortest;
+    }
+
+    private void addLocked(Entry entry) {
+        int ordinal = entries.size();
+        entries.add(entry);
+        ordinals.put(entry.id(), ordinal);
+
+        index(namePostings, entry.firstName(), ordinal);
+        index(namePostings, entry.lastName(), ordinal);
+        index(emailPostings, entry.email(), ordinal);
+        index(phonePostings, entry.phone(), ordinal);
+    }
+
+    private void removeLocked(String id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            entries.set(ordinal, null);
+        }
+    }
+
+    private void compactLocked() {
+        List<Entry> live = entries.stream().filter(entry -> entry != null).toList();
+
+        entries = new ArrayList<>(live.size());
+        ordinals.clear();
+        namePostings.clear();
+        emailPostings.clear();
+        phonePostings.clear();
+        live.forEach(this::addLocked);
+    }
+
+    private static void index(Map<Long, Postings> postings, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            postings.computeIfAbsent(gram(value, i), key -> new Postings()).add(ordinal);
+        }
+    }
+
+    private static long gram(String value, int from) {
+        return ((long) value.charAt(from) << 32) | ((long) value.charAt(from + 1) << 16) | value.charAt(from + 2);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Postings {
+        static final Postings EMPTY = new Postings();
+
+        int[] values = new int[4];
+
+        int size;
+
+        // Ordinals are indexed in increasing order, so a repeat is always the last one
+        void add(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+    }
+}
@@ -15,7 +15,6 @@
 package com.restful.core.security;
 
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Arrays;
 
@@ -214,13 +213,63 @@ public class BCrypt {
             0, 1, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63, -1, -1, -1, -1, -1, -1, -1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11,
             12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, -1, -1, -1, -1, -1, -1, 28, 29, 30, 31, 32,
             33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, -1, -1, -1, -1, -1 };
-    static final int MIN_LOG_ROUNDS = 4;
-    static final int MAX_LOG_ROUNDS = 31;
+    public static final int MIN_LOG_ROUNDS = 4;
+    public static final int MAX_LOG_ROUNDS = 31;
+
+    // Length of the salt and of the hash once base64-encoded
+    private static final int ENCODED_SALT_LEN = 22;
+
+    private static final int ENCODED_HASH_LEN = 31;
+
+    // Hashing state is reused by every hash computed on the same thread, so a
+    // call allocates nothing but its result string
+    private static final ThreadLocal<BCrypt> STATE = ThreadLocal.withInitial(BCrypt::new);
 
     // Expanded Blowfish key
-    private int P[];
+    private final int P[] = new int[P_orig.length];
+
+    private final int S[] = new int[S_orig.length];
+
+    // Key material, pre-split into the words fed to the key schedule
+    private final int passwordWords[] = new int[P_orig.length];
+
+    private final int saltWords[] = new int[P_orig.length];
+
+    // Scratch buffers
+    private final int lr[] = new int[2];
+
+    private final int cdata[] = new int[bf_crypt_ciphertext.length];
+
+    private final byte salt[] = new byte[BCRYPT_SALT_LEN];
+
+    private final byte hashed[] = new byte[bf_crypt_ciphertext.length * 4];
+
+    private final char encoded[] = new char[7 + ENCODED_SALT_LEN + ENCODED_HASH_LEN];
+
+    // Zeroes everything derived from the last password, so it does not outlive
+    // the call on a long-lived pool thread
+    private void clear() {
+        Arrays.fill(P, 0);
+        Arrays.fill(S, 0);
+        Arrays.fill(passwordWords, 0);
+        Arrays.fill(saltWords, 0);
+        Arrays.fill(lr, 0);
+        Arrays.fill(cdata, 0);
+        Arrays.fill(hashed, (byte) 0);
+        Arrays.fill(encoded, (char) 0);
+    }
 
-    private int S[];
+    // For tests: whether this thread's state holds nothing from the last call
+    static boolean isCleared() {
+        BCrypt state = STATE.get();
+        return isZero(state.P) && isZero(state.S) && isZero(state.passwordWords) && isZero(state.saltWords)
+                && isZero(state.lr) && isZero(state.cdata) && Arrays.equals(state.hashed, new byte[state.hashed.length])
+                && Arrays.equals(state.encoded, new char[state.encoded.length]);
+    }
+
+    private static boolean isZero(int[] words) {
+        return Arrays.equals(words, new int[words.length]);
+    }
 
     /**
      * Encode a byte array using bcrypt's slightly-modified base64 encoding scheme.
@@ -231,9 +280,11 @@ public class BCrypt {
      * @param d   the byte array to encode
      * @param len the number of bytes to encode
      * @param rs  the destination buffer for the base64-encoded string
+     * @param pos the position in rs to start writing at
+     * @return the position in rs after the last character written
      * @exception IllegalArgumentException if the length is invalid
      */
-    static void encode_base64(byte d[], int len, StringBuilder rs) throws IllegalArgumentException {
+    static int encode_base64(byte d[], int len, char rs[], int pos) throws IllegalArgumentException {
         int off = 0;
         int c1, c2;
 
@@ -243,25 +294,26 @@ public class BCrypt {
 
         while (off < len) {
             c1 = d[off++] & 0xff;
-            rs.append(base64_code[(c1 >> 2) & 0x3f]);
+            rs[pos++] = base64_code[(c1 >> 2) & 0x3f];
             c1 = (c1 & 0x03) << 4;
             if (off >= len) {
-                rs.append(base64_code[c1 & 0x3f]);
+                rs[pos++] = base64_code[c1 & 0x3f];
                 break;
             }
             c2 = d[off++] & 0xff;
             c1 |= (c2 >> 4) & 0x0f;
-            rs.append(base64_code[c1 & 0x3f]);
+            rs[pos++] = base64_code[c1 & 0x3f];
             c1 = (c2 & 0x0f) << 2;
             if (off >= len) {
-                rs.append(base64_code[c1 & 0x3f]);
+                rs[pos++] = base64_code[c1 & 0x3f];
                 break;
             }
             c2 = d[off++] & 0xff;
             c1 |= (c2 >> 6) & 0x03;
-            rs.append(base64_code[c1 & 0x3f]);
-            rs.append(base64_code[c2 & 0x3f]);
+            rs[pos++] = base64_code[c1 & 0x3f];
+            rs[pos++] = base64_code[c2 & 0x3f];
         }
+        return pos;
     }
 
     /**
@@ -280,26 +332,22 @@ public class BCrypt {
     }
 
     /**
-     * Decode a string encoded using bcrypt's base64 scheme to a byte array. Note
-     * that
-     * this is *not* compatible with the standard MIME-base64 encoding.
+     * Decode part of a string encoded using bcrypt's base64 scheme into a byte
+     * array. Note that this is *not* compatible with the standard MIME-base64
+     * encoding.
      * 
-     * @param s       the string to decode
-     * @param maxolen the maximum number of bytes to decode
-     * @return an array containing the decoded bytes
-     * @throws IllegalArgumentException if maxolen is invalid
+     * @param s    the string to decode
+     * @param from the index of the first character to decode
+     * @param to   the index after the last character to decode
+     * @param ret  the destination buffer; its length is the maximum number of
+     *             bytes to decode
+     * @return the number of bytes decoded
      */
-    static byte[] decode_base64(String s, int maxolen) throws IllegalArgumentException {
-        StringBuilder rs = new StringBuilder();
-        int off = 0, slen = s.length(), olen = 0;
-        byte ret[];
+    static int decode_base64(String s, int from, int to, byte ret[]) {
+        int off = from, olen = 0, maxolen = ret.length;
         byte c1, c2, c3, c4, o;
 
-        if (maxolen <= 0) {
-            throw new IllegalArgumentException("Invalid maxolen");
-        }
-
-        while (off < slen - 1 && olen < maxolen) {
+        while (off < to - 1 && olen < maxolen) {
             c1 = char64(s.charAt(off++));
             c2 = char64(s.charAt(off++));
             if (c1 == -1 || c2 == -1) {
@@ -307,8 +355,8 @@ public class BCrypt {
             }
             o = (byte) (c1 << 2);
             o |= (c2 & 0x30) >> 4;
-            rs.append((char) o);
-            if (++olen >= maxolen || off >= slen) {
+            ret[olen] = o;
+            if (++olen >= maxolen || off >= to) {
                 break;
             }
             c3 = char64(s.charAt(off++));
@@ -317,22 +365,17 @@ public class BCrypt {
             }
             o = (byte) ((c2 & 0x0f) << 4);
             o |= (c3 & 0x3c) >> 2;
-            rs.append((char) o);
-            if (++olen >= maxolen || off >= slen) {
+            ret[olen] = o;
+            if (++olen >= maxolen || off >= to) {
                 break;
             }
             c4 = char64(s.charAt(off++));
             o = (byte) ((c3 & 0x03) << 6);
             o |= c4;
-            rs.append((char) o);
+            ret[olen] = o;
             ++olen;
         }
-
-        ret = new byte[olen];
-        for (off = 0; off < olen; off++) {
-            ret[off] = (byte) rs.charAt(off);
-        }
-        return ret;
+        return olen;
     }
 
     /**
@@ -342,111 +385,69 @@ public class BCrypt {
      * @param off the position in the array of the blocks
      */
     private void encipher(int lr[], int off) {
+        final int P[] = this.P, S[] = this.S;
         int i, n, l = lr[off], r = lr[off + 1];
 
-        l ^= this.P[0];
+        l ^= P[0];
         for (i = 0; i <= BLOWFISH_NUM_ROUNDS - 2;) {
             // Feistel substitution on left word
-            n = this.S[(l >> 24) & 0xff];
-            n += this.S[0x100 | ((l >> 16) & 0xff)];
-            n ^= this.S[0x200 | ((l >> 8) & 0xff)];
-            n += this.S[0x300 | (l & 0xff)];
-            r ^= n ^ this.P[++i];
+            n = S[(l >> 24) & 0xff];
+            n += S[0x100 | ((l >> 16) & 0xff)];
+            n ^= S[0x200 | ((l >> 8) & 0xff)];
+            n += S[0x300 | (l & 0xff)];
+            r ^= n ^ P[++i];
 
             // Feistel substitution on right word
-            n = this.S[(r >> 24) & 0xff];
-            n += this.S[0x100 | ((r >> 16) & 0xff)];
-            n ^= this.S[0x200 | ((r >> 8) & 0xff)];
-            n += this.S[0x300 | (r & 0xff)];
-            l ^= n ^ this.P[++i];
+            n = S[(r >> 24) & 0xff];
+            n += S[0x100 | ((r >> 16) & 0xff)];
+            n ^= S[0x200 | ((r >> 8) & 0xff)];
+            n += S[0x300 | (r & 0xff)];
+            l ^= n ^ P[++i];
         }
-        lr[off] = r ^ this.P[BLOWFISH_NUM_ROUNDS + 1];
+        lr[off] = r ^ P[BLOWFISH_NUM_ROUNDS + 1];
         lr[off + 1] = l;
     }
 
     /**
-     * Cycically extract a word of key material
+     * Split the salt into the cyclic sequence of words used by the key schedule
      * 
-     * @param data  the string to extract the data from
-     * @param offp  a "pointer" (as a one-entry array) to the current offset into
-     *              data
-     * @param signp a "pointer" (as a one-entry array) to the cumulative flag for
-     *              non-benign sign extension
-     * @return correct and buggy next word of material from data as int[2]
+     * @param data the binary salt
      */
-    private static int[] streamtowords(byte data[], int offp[], int signp[]) {
-        int i;
-        int words[] = { 0, 0 };
-        int off = offp[0];
-        int sign = signp[0];
-
-        for (i = 0; i < 4; i++) {
-            words[0] = (words[0] << 8) | (data[off] & 0xff);
-            words[1] = (words[1] << 8) | data[off]; // sign extension bug
-            if (i > 0) {
-                sign |= words[1] & 0x80;
+    private void salt_words(byte data[]) {
+        int off = 0;
+
+        for (int i = 0; i < saltWords.length; i++) {
+            int word = 0;
+            for (int j = 0; j < 4; j++) {
+                word = (word << 8) | (data[off] & 0xff);
+                off = (off + 1) % data.length;
             }
-            off = (off + 1) % data.length;
+            saltWords[i] = word;
         }
-
-        offp[0] = off;
-        signp[0] = sign;
-        return words;
-    }
-
-    /**
-     * Cycically extract a word of key material
-     * 
-     * @param data the string to extract the data from
-     * @param offp a "pointer" (as a one-entry array) to the current offset into
-     *             data
-     * @return the next word of material from data
-     */
-    private static int streamtoword(byte data[], int offp[]) {
-        int signp[] = { 0 };
-        return streamtowords(data, offp, signp)[0];
-    }
-
-    /**
-     * Cycically extract a word of key material, with sign-extension bug
-     * 
-     * @param data the string to extract the data from
-     * @param offp a "pointer" (as a one-entry array) to the current offset into
-     *             data
-     * @return the next word of material from data
-     */
-    private static int streamtoword_bug(byte data[], int offp[]) {
-        int signp[] = { 0 };
-        return streamtowords(data, offp, signp)[1];
     }
 
     /**
      * Initialise the Blowfish key schedule
      */
     private void init_key() {
-        this.P = P_orig.clone();
-        this.S = S_orig.clone();
+        System.arraycopy(P_orig, 0, P, 0, P.length);
+        System.arraycopy(S_orig, 0, S, 0, S.length);
     }
 
     /**
      * Key the Blowfish cipher
      * 
-     * @param key          an array containing the key
-     * @param sign_ext_bug true to implement the 2x bug
-     * @param safety       bit 16 is set when the safety measure is requested
+     * @param words the key material, as extracted by ekskey() or salt_words()
      */
-    private void key(byte key[], boolean sign_ext_bug, int safety) {
+    private void key(int words[]) {
         int i;
-        int koffp[] = { 0 };
-        int lr[] = { 0, 0 };
         int plen = this.P.length, slen = this.S.length;
 
+        lr[0] = 0;
+        lr[1] = 0;
+
         for (i = 0; i < plen; i++) {
-            if (!sign_ext_bug) {
-                this.P[i] = this.P[i] ^ streamtoword(key, koffp);
-            } else {
-                this.P[i] = this.P[i] ^ streamtoword_bug(key, koffp);
-            }
+            this.P[i] = this.P[i] ^ words[i];
         }
 
         for (i = 0; i < plen; i += 2) {
@@ -467,28 +468,40 @@ public class BCrypt {
      * "A
      * Future-Adaptable Password Scheme"
      * https://www.openbsd.org/papers/bcrypt-paper.ps
+     * <p>
+     * As a side effect this extracts the words of key material from the password
+     * into passwordWords, for reuse by every later call to key().
      * 
-     * @param data         salt information
      * @param key          password information
+     * @param keylen       the length of the password, counting the NUL
+     *                     terminator when one is requested
      * @param sign_ext_bug true to implement the 2x bug
      * @param safety       bit 16 is set when the safety measure is requested
      */
-    private void ekskey(byte data[], byte key[], boolean sign_ext_bug, int safety) {
-        int i;
-        int koffp[] = { 0 }, doffp[] = { 0 };
-        int lr[] = { 0, 0 };
+    private void ekskey(byte key[], int keylen, boolean sign_ext_bug, int safety) {
+        int i, j;
+        int koff = 0, doff = 0;
         int plen = this.P.length, slen = this.S.length;
-        int signp[] = { 0 }; // non-benign sign-extension flag
+        int sign = 0; // non-benign sign-extension flag
         int diff = 0; // zero iff correct and buggy are same
 
         for (i = 0; i < plen; i++) {
-            int words[] = streamtowords(key, koffp, signp);
-            diff |= words[0] ^ words[1];
-            this.P[i] = this.P[i] ^ words[sign_ext_bug ? 1 : 0];
+            int word = 0, word_bug = 0;
+            for (j = 0; j < 4; j++) {
+                // keylen is one past the array when the password is NUL terminated
+                byte b = koff < key.length || keylen == key.length ? key[koff] : 0;
+                word = (word << 8) | (b & 0xff);
+                word_bug = (word_bug << 8) | b; // sign extension bug
+                if (j > 0) {
+                    sign |= word_bug & 0x80;
+                }
+                koff = (koff + 1) % keylen;
+            }
+            diff |= word ^ word_bug;
+            passwordWords[i] = sign_ext_bug ? word_bug : word;
+            this.P[i] = this.P[i] ^ passwordWords[i];
         }
 
-        int sign = signp[0];
-
         /*
          * At this point, "diff" is zero iff the correct and buggy algorithms produced
          * exactly the same result. If so and if "sign" is non-zero, which indicates
@@ -515,23 +528,26 @@ public class BCrypt {
          *
          * It is crucial that we don't do the same to the expanded key used in the main
          * Eksblowfish loop. By doing it to only one of these two, we deviate from a
-         * state
-         * that could be directly specified by a password to the buggy algorithm (and to
-         * the fully correct one as well, but that's a side-effect).
+         * state that could be directly specified by a password to the buggy algorithm
+         * (and to the fully correct one as well, but that's a side-effect).
          */
         this.P[0] ^= sign;
 
+        lr[0] = 0;
+        lr[1] = 0;
+
+        // The salt is 16 bytes, so its words repeat every 4
         for (i = 0; i < plen; i += 2) {
-            lr[0] ^= streamtoword(data, doffp);
-            lr[1] ^= streamtoword(data, doffp);
+            lr[0] ^= saltWords[doff++ & 3];
+            lr[1] ^= saltWords[doff++ & 3];
             encipher(lr, 0);
             this.P[i] = lr[0];
             this.P[i + 1] = lr[1];
         }
 
         for (i = 0; i < slen; i += 2) {
-            lr[0] ^= streamtoword(data, doffp);
-            lr[1] ^= streamtoword(data, doffp);
+            lr[0] ^= saltWords[doff++ & 3];
+            lr[1] ^= saltWords[doff++ & 3];
             encipher(lr, 0);
             this.S[i] = lr[0];
             this.S[i + 1] = lr[1];
@@ -546,19 +562,19 @@ public class BCrypt {
     }
 
     /**
-     * Perform the central password hashing step in the bcrypt scheme
+     * Perform the central password hashing step in the bcrypt scheme, leaving
+     * the binary hashed password in this.hashed
      * 
-     * @param password     the password to hash
-     * @param salt         the binary salt to hash with the password
-     * @param log_rounds   the binary logarithm of the number of rounds of hashing
-     *                     to apply
-     * @param sign_ext_bug true to implement the 2x bug
-     * @param safety       bit 16 is set when the safety measure is requested
-     * @return an array containing the binary hashed password
+     * @param password      the password to hash
+     * @param nul_terminate true to hash the password followed by a NUL byte
+     * @param saltlen       the number of bytes decoded into this.salt
+     * @param log_rounds    the binary logarithm of the number of rounds of
+     *                      hashing to apply
+     * @param sign_ext_bug  true to implement the 2x bug
+     * @param safety        bit 16 is set when the safety measure is requested
      */
-    private byte[] crypt_raw(byte password[], byte salt[], int log_rounds, boolean sign_ext_bug, int safety,
-            boolean for_check) {
-        int cdata[] = bf_crypt_ciphertext.clone();
+    private void crypt_raw(byte password[], boolean nul_terminate, int saltlen, int log_rounds,
+            boolean sign_ext_bug, int safety, boolean for_check) {
         int clen = cdata.length;
 
         long rounds;
@@ -577,31 +593,31 @@ public class BCrypt {
             }
         }
 
-        if (salt.length != BCRYPT_SALT_LEN) {
+        if (saltlen != BCRYPT_SALT_LEN) {
             throw new IllegalArgumentException("Bad salt length");
         }
 
+        salt_words(salt);
         init_key();
-        ekskey(salt, password, sign_ext_bug, safety);
+        ekskey(password, nul_terminate ? password.length + 1 : password.length, sign_ext_bug, safety);
         for (int i = 0; i < rounds; i++) {
-            key(password, sign_ext_bug, safety);
-            key(salt, false, safety);
+            key(passwordWords);
+            key(saltWords);
         }
 
+        System.arraycopy(bf_crypt_ciphertext, 0, cdata, 0, clen);
         for (int i = 0; i < 64; i++) {
             for (int j = 0; j < (clen >> 1); j++) {
                 encipher(cdata, j << 1);
             }
         }
 
-        byte[] ret = new byte[clen * 4];
         for (int i = 0, j = 0; i < clen; i++) {
-            ret[j++] = (byte) ((cdata[i] >> 24) & 0xff);
-            ret[j++] = (byte) ((cdata[i] >> 16) & 0xff);
-            ret[j++] = (byte) ((cdata[i] >> 8) & 0xff);
-            ret[j++] = (byte) (cdata[i] & 0xff);
+            hashed[j++] = (byte) ((cdata[i] >> 24) & 0xff);
+            hashed[j++] = (byte) ((cdata[i] >> 16) & 0xff);
+            hashed[j++] = (byte) ((cdata[i] >> 8) & 0xff);
+            hashed[j++] = (byte) (cdata[i] & 0xff);
         }
-        return ret;
     }
 
     private static String hashpwforcheck(byte[] passwordb, String salt) {
@@ -638,11 +654,9 @@ public class BCrypt {
 
     private static String hashpw(byte passwordb[], String salt, boolean for_check) {
         BCrypt B;
-        String real_salt;
-        byte saltb[], hashed[];
         char minor = (char) 0;
-        int rounds, off;
-        StringBuilder rs = new StringBuilder();
+        int rounds, off, saltlen, pos = 0;
+        char rs[];
 
         if (salt == null) {
             throw new IllegalArgumentException("salt cannot be null");
@@ -675,31 +689,30 @@ public class BCrypt {
         if (off == 4 && saltLength < 29) {
             throw new IllegalArgumentException("Invalid salt");
         }
-        rounds = Integer.parseInt(salt.substring(off, off + 2));
+        rounds = Integer.parseInt(salt, off, off + 2, 10);
 
-        real_salt = salt.substring(off + 3, off + 25);
-        saltb = decode_base64(real_salt, BCRYPT_SALT_LEN);
+        B = STATE.get();
+        try {
+            saltlen = decode_base64(salt, off + 3, off + 3 + ENCODED_SALT_LEN, B.salt);
+            B.crypt_raw(passwordb, minor >= 'a', saltlen, rounds, minor == 'x', minor == 'a' ? 0x10000 : 0, for_check);
 
-        if (minor >= 'a') {
-            passwordb = Arrays.copyOf(passwordb, passwordb.length + 1);
-        }
-
-        B = new BCrypt();
-        hashed = B.crypt_raw(passwordb, saltb, rounds, minor == 'x', minor == 'a' ? 0x10000 : 0, for_check);
-
-        rs.append("$2");
-        if (minor >= 'a') {
-            rs.append(minor);
-        }
-        rs.append("$");
-        if (rounds < 10) {
-            rs.append("0");
+            // rounds is within 0..31 once crypt_raw has accepted it
+            rs = B.encoded;
+            rs[pos++] = '$';
+            rs[pos++] = '2';
+            if (minor >= 'a') {
+                rs[pos++] = minor;
+            }
+            rs[pos++] = '$';
+            rs[pos++] = (char) ('0' + rounds / 10);
+            rs[pos++] = (char) ('0' + rounds % 10);
+            rs[pos++] = '$';
+            pos = encode_base64(B.salt, B.salt.length, rs, pos);
+            pos = encode_base64(B.hashed, bf_crypt_ciphertext.length * 4 - 1, rs, pos);
+            return new String(rs, 0, pos);
+        } finally {
+            B.clear();
         }
-        rs.append(rounds);
-        rs.append("$");
-        encode_base64(saltb, saltb.length, rs);
-        encode_base64(hashed, bf_crypt_ciphertext.length * 4 - 1, rs);
-        return rs.toString();
     }
 
     /**
@@ -714,7 +727,7 @@ public class BCrypt {
      * @exception IllegalArgumentException if prefix or log_rounds is invalid
      */
     public static String gensalt(String prefix, int log_rounds, SecureRandom random) throws IllegalArgumentException {
-        StringBuilder rs = new StringBuilder();
+        char rs[] = new char[7 + ENCODED_SALT_LEN];
         byte rnd[] = new byte[BCRYPT_SALT_LEN];
 
         if (!prefix.startsWith("$2")
@@ -727,16 +740,15 @@ public class BCrypt {
 
         random.nextBytes(rnd);
 
-        rs.append("$2");
-        rs.append(prefix.charAt(2));
-        rs.append("$");
-        if (log_rounds < 10) {
-            rs.append("0");
-        }
-        rs.append(log_rounds);
-        rs.append("$");
-        encode_base64(rnd, rnd.length, rs);
-        return rs.toString();
+        rs[0] = '$';
+        rs[1] = '2';
+        rs[2] = prefix.charAt(2);
+        rs[3] = '$';
+        rs[4] = (char) ('0' + log_rounds / 10);
+        rs[5] = (char) ('0' + log_rounds % 10);
+        rs[6] = '$';
+        encode_base64(rnd, rnd.length, rs, 7);
+        return new String(rs);
     }
 
     /**
@@ -820,7 +832,12 @@ public class BCrypt {
     }
 
     static boolean equalsNoEarlyReturn(String a, String b) {
-        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+        int alen = a.length(), blen = b.length();
+        int diff = alen ^ blen;
+        for (int i = 0; i < alen && i < blen; i++) {
+            diff |= a.charAt(i) ^ b.charAt(i);
+        }
+        return diff == 0;
     }
 
 }
\ No newline at end of file
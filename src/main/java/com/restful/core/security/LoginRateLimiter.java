@@ -0,0 +1,121 @@
+package com.restful.core.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Token buckets in front of login, one per username and one per client
+ * address. Buckets live in Caffeine caches, which are striped internally, and
+ * each bucket is a single {@link AtomicLong} updated by compare-and-set, so
+ * concurrent attempts never take a lock. A bucket that has been idle for a
+ * full refill period is full again and is simply dropped.
+ */
+@Component
+public class LoginRateLimiter {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.login-rate-limit.per-username.capacity}")
+    private int usernameCapacity;
+
+    @Value("${app.auth.login-rate-limit.per-username.refill-period}")
+    private Duration usernameRefillPeriod;
+
+    @Value("${app.auth.login-rate-limit.per-client.capacity}")
+    private int clientCapacity;
+
+    @Value("${app.auth.login-rate-limit.per-client.refill-period}")
+    private Duration clientRefillPeriod;
+
+    @Value("${app.auth.login-rate-limit.maximum-keys}")
+    private long maximumKeys;
+
+    private Limit usernames;
+
+    private Limit clients;
+
+    @PostConstruct
+    void init() {
+        usernames = new Limit("username", usernameCapacity, usernameRefillPeriod);
+        clients = new Limit("client", clientCapacity, clientRefillPeriod);
+    }
+
+    /**
+     * Takes one token from the client's bucket and then from the username's.
+     * Throws 429 without touching the username bucket if the client is
+     * already over its limit.
+     */
+    public void acquire(String username, String clientAddress) {
+        if (clientAddress != null) {
+            clients.acquire(clientAddress);
+        }
+        usernames.acquire(username.toLowerCase(Locale.ROOT));
+    }
+
+    private class Limit {
+        private final Cache<String, TokenBucket> buckets;
+
+        private final long emissionInterval;
+
+        private final long burstTolerance;
+
+        private final Counter throttled;
+
+        Limit(String name, int capacity, Duration refillPeriod) {
+            this.emissionInterval = refillPeriod.toNanos() / capacity;
+            this.burstTolerance = emissionInterval * (capacity - 1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(refillPeriod)
+                    .build();
+            this.throttled = Counter.builder("auth.login.throttled")
+                    .tag("key", name)
+                    .description("Login attempts refused by the rate limiter")
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            TokenBucket bucket = buckets.get(key, k -> new TokenBucket());
+            if (!bucket.tryAcquire(System.nanoTime(), emissionInterval, burstTolerance)) {
+                throttled.increment();
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts");
+            }
+        }
+    }
+
+    /**
+     * Token bucket expressed as the generic cell rate algorithm: instead of a
+     * token count it stores the time at which the bucket would be full again,
+     * which fits in one atomic word.
+     */
+    private static class TokenBucket {
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        boolean tryAcquire(long now, long emissionInterval, long burstTolerance) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current == Long.MIN_VALUE || current < now ? now : current;
+                if (base - now > burstTolerance) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, base + emissionInterval)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.restful.core.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt work on a dedicated, CPU-sized pool with a bounded queue so a
+ * burst of logins or registrations cannot take over the request threads.
+ * When the queue is full the caller gets a 503 straight away.
+ * <p>
+ * Unless {@code app.bcrypt.log-rounds} is fixed, the cost factor is
+ * calibrated at startup to the largest value whose hash time stays within
+ * {@code app.bcrypt.target-time} on this machine.
+ */
+@Component
+public class PasswordHasher {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.bcrypt.pool-size}")
+    private int poolSize;
+
+    @Value("${app.bcrypt.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.bcrypt.timeout}")
+    private Duration timeout;
+
+    @Value("${app.bcrypt.log-rounds}")
+    private int configuredLogRounds;
+
+    @Value("${app.bcrypt.target-time}")
+    private Duration targetTime;
+
+    @Value("${app.bcrypt.min-log-rounds}")
+    private int minLogRounds;
+
+    @Value("${app.bcrypt.max-log-rounds}")
+    private int maxLogRounds;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejected;
+
+    private Counter rehashed;
+
+    private int logRounds;
+
+    @PostConstruct
+    void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new BCryptThreadFactory());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "bcrypt");
+        rejected = Counter.builder("bcrypt.rejected")
+                .description("Password hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        rehashed = Counter.builder("bcrypt.rehashed")
+                .description("Stored hashes upgraded to the current cost factor on login")
+                .register(meterRegistry);
+
+        logRounds = configuredLogRounds > 0 ? configuredLogRounds : calibrate();
+        Gauge.builder("bcrypt.log.rounds", () -> logRounds)
+                .description("Cost factor used for new hashes")
+                .register(meterRegistry);
+    }
+
+    // Each extra round doubles the work, so one timing at the minimum cost is
+    // enough to extrapolate the largest cost that fits the target.
+    private int calibrate() {
+        String salt = BCrypt.gensalt(minLogRounds);
+        for (int i = 0; i < 3; i++) {
+            BCrypt.hashpw("calibration", BCrypt.gensalt(BCrypt.MIN_LOG_ROUNDS));
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        int rounds = minLogRounds;
+        long estimate = best;
+        while (rounds < maxLogRounds && estimate * 2 <= targetTime.toNanos()) {
+            rounds++;
+            estimate *= 2;
+        }
+
+        log.info("BCrypt cost calibrated to {} ({} ms at {}, target {} ms)", rounds,
+                TimeUnit.NANOSECONDS.toMillis(best), minLogRounds, targetTime.toMillis());
+        return rounds;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String hash(String password) {
+        return run("hash", () -> BCrypt.hashpw(password, BCrypt.gensalt(logRounds)));
+    }
+
+    public boolean check(String password, String hashed) {
+        return run("check", () -> BCrypt.checkpw(password, hashed));
+    }
+
+    public int getLogRounds() {
+        return logRounds;
+    }
+
+    public boolean needsRehash(String hashed) {
+        int off = hashed.charAt(2) == '$' ? 3 : 4;
+        return Integer.parseInt(hashed, off, off + 2, 10) != logRounds;
+    }
+
+    /**
+     * Hashes the password again at the current cost in the background and hands
+     * the result to the callback. Skipped when the pool is saturated; the next
+     * successful login will try again.
+     */
+    public void rehashAsync(String password, Consumer<String> onHashed) {
+        try {
+            executor.execute(() -> {
+                onHashed.accept(BCrypt.hashpw(password, BCrypt.gensalt(logRounds)));
+                rehashed.increment();
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping rehash, BCrypt pool is saturated");
+        }
+    }
+
+    private <T> T run(String operation, Supplier<T> work) {
+        Timer queueWait = timer("bcrypt.queue.wait", operation);
+        Timer hashTime = timer("bcrypt.hash.duration", operation);
+        long submitted = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return work.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Timer timer(String name, String operation) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static class BCryptThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bcrypt-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.restful.core.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Self-verifying access tokens of the form
+ * {@code s1.<base64url(username)>.<expiredAt>.<base64url(hmac-sha256)>}.
+ * <p>
+ * A valid token is checked without touching the database. Logged-out tokens
+ * are kept in an in-memory revocation list until they would have expired
+ * anyway, so the list never holds more than the tokens revoked within one
+ * token lifetime. The list is local to this instance.
+ */
+@Component
+public class SignedTokens {
+    public static final String PREFIX = "s1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${app.auth.token-mode}")
+    private String tokenMode;
+
+    @Value("${app.auth.signing-key:}")
+    private String signingKey;
+
+    private Mac prototype;
+
+    private final Cache<String, Long> revoked = Caffeine.newBuilder()
+            .expireAfter(new RevocationExpiry())
+            .build();
+
+    public record Claims(String username, long expiredAt, String signature) {
+    }
+
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        byte[] key = signingKey.isBlank() ? new byte[0] : Base64.getDecoder().decode(signingKey);
+        if (key.length < 32) {
+            throw new IllegalStateException("app.auth.signing-key must be at least 32 bytes (base64) in signed mode");
+        }
+        prototype = Mac.getInstance(ALGORITHM);
+        prototype.init(new SecretKeySpec(key, ALGORITHM));
+    }
+
+    public boolean isEnabled() {
+        return "signed".equalsIgnoreCase(tokenMode);
+    }
+
+    public boolean isSigned(String token) {
+        return token.startsWith(PREFIX);
+    }
+
+    public String sign(String username, long expiredAt) {
+        String payload = PREFIX + ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "." + expiredAt;
+        return payload + "." + ENCODER.encodeToString(hmac(payload));
+    }
+
+    /**
+     * Returns the claims of a token whose signature is valid and that has not
+     * been revoked. Expiry is left to the caller so it can report it distinctly.
+     */
+    public Optional<Claims> verify(String token) {
+        if (prototype == null || !isSigned(token)) {
+            return Optional.empty();
+        }
+
+        int signatureAt = token.lastIndexOf('.');
+        int expiryAt = token.lastIndexOf('.', signatureAt - 1);
+        if (expiryAt < PREFIX.length()) {
+            return Optional.empty();
+        }
+
+        try {
+            String payload = token.substring(0, signatureAt);
+            byte[] signature = DECODER.decode(token.substring(signatureAt + 1));
+            if (!MessageDigest.isEqual(signature, hmac(payload))) {
+                return Optional.empty();
+            }
+
+            String username = new String(DECODER.decode(token.substring(PREFIX.length(), expiryAt)),
+                    StandardCharsets.UTF_8);
+            long expiredAt = Long.parseLong(token.substring(expiryAt + 1, signatureAt));
+            String encodedSignature = token.substring(signatureAt + 1);
+            if (revoked.getIfPresent(encodedSignature) != null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(username, expiredAt, encodedSignature));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void revoke(Claims claims) {
+        if (claims.expiredAt() > System.currentTimeMillis()) {
+            revoked.put(claims.signature(), claims.expiredAt());
+        }
+    }
+
+    private byte[] hmac(String payload) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class RevocationExpiry implements Expiry<String, Long> {
+        @Override
+        public long expireAfterCreate(String signature, Long expiredAt, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiredAt - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String signature, Long expiredAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String signature, Long expiredAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
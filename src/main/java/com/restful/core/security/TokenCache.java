@@ -0,0 +1,122 @@
+package com.restful.core.security;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.restful.core.entity.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded cache from API token to the authenticated user, so that
+ * {@link com.restful.core.resolver.UserArgumentResolver} does not hit the
+ * database on every request.
+ * <p>
+ * An entry never outlives the token it was loaded for: it expires at
+ * {@code tokenExpiredAt} or after the configured time-to-live, whichever comes
+ * first. Anything that changes a user's token or profile must call
+ * {@link #evict(String)}.
+ */
+@Component
+public class TokenCache {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.token-cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${app.auth.token-cache.time-to-live}")
+    private Duration timeToLive;
+
+    private Cache<String, User> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.tokens");
+    }
+
+    public Optional<User> get(String token) {
+        User user = cache.getIfPresent(token);
+        return user == null ? Optional.empty() : Optional.of(copyOf(user));
+    }
+
+    public void put(User user) {
+        if (user.getToken() == null || user.getTokenExpiredAt() == null) {
+            return;
+        }
+        cache.put(user.getToken(), copyOf(user));
+    }
+
+    /**
+     * Drops the entry for a token now and, when called inside a transaction,
+     * once more after commit so a concurrent request cannot re-cache the row as
+     * it was before the change.
+     */
+    public void evict(String token) {
+        if (token == null) {
+            return;
+        }
+
+        cache.invalidate(token);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(token);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // Callers get their own detached copy, so nobody mutates the cached instance.
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setUsername(user.getUsername());
+        copy.setPassword(user.getPassword());
+        copy.setName(user.getName());
+        copy.setToken(user.getToken());
+        copy.setTokenExpiredAt(user.getTokenExpiredAt());
+        return copy;
+    }
+
+    private class TokenExpiry implements Expiry<String, User> {
+        @Override
+        public long expireAfterCreate(String token, User user, long currentTime) {
+            long untilExpired = TimeUnit.MILLISECONDS
+                    .toNanos(Math.max(0, user.getTokenExpiredAt() - System.currentTimeMillis()));
+            return Math.min(untilExpired, timeToLive.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, User user, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, User user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
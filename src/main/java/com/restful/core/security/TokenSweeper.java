@@ -0,0 +1,73 @@
+package com.restful.core.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.restful.core.repository.UserRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Periodically clears expired tokens from the users table. Each batch is its
+ * own short UPDATE ... LIMIT transaction, with a pause in between, so a large
+ * backlog is drained without holding row locks for long.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.token-sweeper.enabled", havingValue = "true")
+public class TokenSweeper {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.token-sweeper.batch-size}")
+    private int batchSize;
+
+    @Value("${app.auth.token-sweeper.max-batches-per-run}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.auth.token-sweeper.pause-between-batches}")
+    private Duration pauseBetweenBatches;
+
+    private DistributionSummary sweptRows;
+
+    private Timer runDuration;
+
+    @PostConstruct
+    void init() {
+        sweptRows = DistributionSummary.builder("auth.token.sweeper.rows")
+                .description("Expired tokens cleared per sweeper run")
+                .register(meterRegistry);
+        runDuration = Timer.builder("auth.token.sweeper.duration")
+                .description("Duration of a sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.token-sweeper.interval}", fixedDelayString = "${app.auth.token-sweeper.interval}")
+    public void sweep() throws InterruptedException {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int cleared = userRepository.clearExpiredTokens(now, batchSize);
+            total += cleared;
+            if (cleared < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseBetweenBatches.toMillis());
+        }
+
+        sweptRows.record(total);
+        runDuration.record(Duration.ofNanos(System.nanoTime() - started));
+    }
+}
@@ -0,0 +1,115 @@
+package com.restful.core.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.restful.core.entity.Address;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.ids.TimeOrderedUuid;
+import com.restful.core.model.Address.AddressResponse;
+import com.restful.core.model.Address.CreateAddressRequest;
+import com.restful.core.model.Address.UpdateAddressRequest;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+
+@Service
+public class AddressServices {
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ValidationService validationService;
+
+    private AddressResponse toAddressResponse(Address address) {
+        return AddressResponse.builder()
+                .id(address.getId().toString())
+                .street(address.getStreet())
+                .city(address.getCity())
+                .province(address.getProvince())
+                .country(address.getCountry())
+                .postalCode(address.getPostalCode())
+                .build();
+    }
+
+    @Transactional
+    public AddressResponse create(User user, CreateAddressRequest request) {
+        validationService.validate(request);
+
+        Contact contact = contactRepository.findFirstByUserAndId(user, id(request.getContactId(), "Contact not found"))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found"));
+
+        Address address = new Address();
+        address.setContact(contact);
+        address.setStreet(request.getStreet());
+        address.setCity(request.getCity());
+        address.setProvince(request.getProvince());
+        address.setCountry(request.getCountry());
+        address.setPostalCode(request.getPostalCode());
+        addressRepository.save(address);
+
+        return toAddressResponse(address);
+    }
+
+    // Owner, contact and address are checked in the same query
+    @Transactional(readOnly = true)
+    public AddressResponse get(User user, String contactId, String addressId) {
+        return addressRepository.findResponseByUsernameAndContactIdAndId(user.getUsername(),
+                id(contactId, "Address not found"), id(addressId, "Address not found")).orElseThrow(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Address not found"));
+    }
+
+    @Transactional
+    public AddressResponse update(User user, UpdateAddressRequest request) {
+        validationService.validate(request);
+
+        Address address = findOwned(user, request.getContactId(), request.getAddressId());
+        address.setStreet(request.getStreet());
+        address.setCity(request.getCity());
+        address.setProvince(request.getProvince());
+        address.setCountry(request.getCountry());
+        address.setPostalCode(request.getPostalCode());
+        addressRepository.save(address);
+
+        return toAddressResponse(address);
+    }
+
+    @Transactional
+    public void remove(User user, String contactId, String addressId) {
+        addressRepository.delete(findOwned(user, contactId, addressId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AddressResponse> list(User user, String contactId) {
+        UUID id = id(contactId, "Contact not found");
+        if (!contactRepository.existsByUserAndId(user, id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found");
+        }
+
+        return addressRepository.findResponsesByContactId(id);
+    }
+
+    private Address findOwned(User user, String contactId, String addressId) {
+        return addressRepository.findByUsernameAndContactIdAndId(user.getUsername(),
+                id(contactId, "Address not found"), id(addressId, "Address not found")).orElseThrow(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Address not found"));
+    }
+
+    // Anything that is not a UUID cannot name a row
+    private static UUID id(String value, String notFound) {
+        UUID id = TimeOrderedUuid.parse(value);
+        if (id == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFound);
+        }
+        return id;
+    }
+}
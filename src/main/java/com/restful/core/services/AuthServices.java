@@ -11,7 +11,10 @@ import org.springframework.web.server.ResponseStatusException;
 import com.restful.core.model.TokenResponse;
 import com.restful.core.model.User.LoginUserRequest;
 import com.restful.core.repository.UserRepository;
-import com.restful.core.security.BCrypt;
+import com.restful.core.security.LoginRateLimiter;
+import com.restful.core.security.PasswordHasher;
+import com.restful.core.security.SignedTokens;
+import com.restful.core.security.TokenCache;
 
 import com.restful.core.entity.User;
 
@@ -23,29 +26,68 @@ public class AuthServices {
     @Autowired
     private ValidationService validationService;
 
-    @Transactional
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private SignedTokens signedTokens;
+
+    /**
+     * Not transactional: the user is read and the new token written by
+     * single statements, so no pooled connection is held while the password
+     * is checked on the BCrypt pool.
+     */
     public TokenResponse login(LoginUserRequest request) {
         validationService.validate(request);
+        // Before any database access, so refused attempts never borrow a connection
+        loginRateLimiter.acquire(request.getUsername(), request.getClientAddress());
 
         User user = userRepository.findById(request.getUsername()).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid username or password"));
 
-        if (!BCrypt.checkpw(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.check(request.getPassword(), user.getPassword())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid username or password");
         }
 
-        user.setToken(UUID.randomUUID().toString());
-        user.setTokenExpiredAt(next30Days());
+        // The token update below leaves the password column alone, and the
+        // compare-and-set covers concurrent changes
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String oldPassword = user.getPassword();
+            passwordHasher.rehashAsync(request.getPassword(),
+                    newPassword -> userRepository.updatePassword(user.getUsername(), oldPassword, newPassword));
+        }
 
-        userRepository.save(user);
+        long expiredAt = next30Days();
+        if (signedTokens.isEnabled()) {
+            return TokenResponse.builder()
+                    .token(signedTokens.sign(user.getUsername(), expiredAt))
+                    .expiredAt(expiredAt)
+                    .build();
+        }
+
+        String token = UUID.randomUUID().toString();
+        tokenCache.evict(user.getToken());
+        userRepository.updateToken(user.getUsername(), token, expiredAt);
         return TokenResponse.builder()
-                .token(user.getToken())
-                .expiredAt(user.getTokenExpiredAt())
+                .token(token)
+                .expiredAt(expiredAt)
                 .build();
     }
 
     @Transactional
-    public void logout(User user) {
+    public void logout(User user, String token) {
+        if (signedTokens.isSigned(token)) {
+            signedTokens.verify(token).ifPresent(signedTokens::revoke);
+            return;
+        }
+
+        tokenCache.evict(user.getToken());
         user.setToken(null);
         user.setTokenExpiredAt(null);
 
@@ -0,0 +1,425 @@
+package com.restful.core.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.hibernate.Hibernate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.User;
+import com.restful.core.model.PagingResponse;
+import com.restful.core.model.Batch.BatchOperation;
+import com.restful.core.model.Batch.BatchRequest;
+import com.restful.core.model.Batch.BatchResult;
+import com.restful.core.model.Contact.ContactResponse;
+import com.restful.core.model.Contact.CreateContactRequest;
+import com.restful.core.model.Contact.PatchContactRequest;
+import com.restful.core.model.Contact.SearchContactRequest;
+import com.restful.core.model.Contact.UpdateContactRequest;
+import com.restful.core.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * Runs several API calls for one already-authenticated user in a single
+ * request. Writes run first, one after another in request order, optionally
+ * in one transaction that is rolled back as a whole if any of them fails.
+ * Reads then run concurrently, {@code app.batch.read-parallelism} at a time,
+ * so they see the batch's own writes. Each call reports the status and body
+ * it would have had on its own.
+ * <p>
+ * Reads use a dedicated pool with a bounded queue, not the executor that
+ * streams exports, and the batch gets a 503 if they do not finish within
+ * {@code app.batch.timeout}. The endpoint runs without an open session in
+ * view, so the waiting thread holds no connection of its own.
+ * <p>
+ * Only the contact, address and current-user endpoints can be batched.
+ */
+@Service
+public class BatchServices {
+    private static final Logger log = LoggerFactory.getLogger(BatchServices.class);
+
+    @Autowired
+    private ContactServices contactServices;
+
+    @Autowired
+    private AddressServices addressServices;
+
+    @Autowired
+    private UserServices userServices;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.batch.max-operations}")
+    private int maxOperations;
+
+    @Value("${app.batch.read-parallelism}")
+    private int readParallelism;
+
+    @Value("${app.batch.pool-size}")
+    private int poolSize;
+
+    @Value("${app.batch.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.batch.timeout}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+
+    private record Call(int index, boolean write, Supplier<BatchResult> run) {
+    }
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("batch-read-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public List<BatchResult> run(User user, BatchRequest request) {
+        validationService.validate(request);
+        if (request.getOperations().size() > maxOperations) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many operations, at most " + maxOperations + " per batch");
+        }
+
+        // A signed-token caller is a lazy reference, and with no session in view
+        // it can only be loaded here, once
+        if (!Hibernate.isInitialized(user)) {
+            user = userRepository.findById(user.getUsername()).orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+        }
+        // Reads run on other threads, so they get a plain copy of the caller
+        User reader = detachedCopy(user);
+
+        BatchResult[] results = new BatchResult[request.getOperations().size()];
+        List<Call> writes = new ArrayList<>();
+        List<Call> reads = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            Call call = route(user, reader, i, request.getOperations().get(i));
+            (call.write() ? writes : reads).add(call);
+        }
+
+        if (request.isTransactional()) {
+            runInTransaction(writes, results);
+        } else {
+            for (Call call : writes) {
+                results[call.index()] = execute(call);
+            }
+        }
+        runConcurrently(reads, results);
+
+        return Arrays.asList(results);
+    }
+
+    private void runInTransaction(List<Call> writes, BatchResult[] results) {
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        Call[] failed = new Call[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Call call : writes) {
+                    results[call.index()] = execute(call);
+                    if (results[call.index()].getStatus() >= 400) {
+                        failed[0] = call;
+                        status.setRollbackOnly();
+                        return;
+                    }
+                }
+            });
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            log.warn("Batch transaction could not be committed", e);
+            for (Call call : writes) {
+                results[call.index()] = result(call.index(), HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Could not apply operation");
+            }
+            return;
+        }
+        if (failed[0] == null) {
+            return;
+        }
+
+        for (Call call : writes) {
+            if (call == failed[0]) {
+                continue;
+            }
+            String error = results[call.index()] == null ? "Not run" : "Rolled back";
+            results[call.index()] = result(call.index(), HttpStatus.FAILED_DEPENDENCY,
+                    error + ", operation " + failed[0].index() + " failed");
+        }
+    }
+
+    // Reads are dealt round-robin into lanes; the calling thread works the first lane itself
+    private void runConcurrently(List<Call> reads, BatchResult[] results) {
+        int laneCount = Math.min(Math.max(readParallelism, 1), reads.size());
+        List<List<Call>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < reads.size(); i++) {
+            lanes.get(i % laneCount).add(reads.get(i));
+        }
+
+        List<Future<?>> futures = new ArrayList<>(laneCount);
+        try {
+            for (int i = 1; i < laneCount; i++) {
+                List<Call> lane = lanes.get(i);
+                futures.add(executor.submit(() -> lane.forEach(call -> results[call.index()] = execute(call))));
+            }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+        }
+        if (laneCount > 0) {
+            lanes.get(0).forEach(call -> results[call.index()] = execute(call));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (Future<?> future : futures) {
+                future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static BatchResult execute(Call call) {
+        try {
+            return call.run().get();
+        } catch (ResponseStatusException e) {
+            return BatchResult.builder()
+                    .index(call.index())
+                    .status(e.getStatusCode().value())
+                    .errors(e.getReason())
+                    .build();
+        } catch (ConstraintViolationException e) {
+            return result(call.index(), HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Batch operation {} failed", call.index(), e);
+            return result(call.index(), HttpStatus.INTERNAL_SERVER_ERROR, "Could not run operation");
+        }
+    }
+
+    private Call route(User user, User reader, int index, BatchOperation operation) {
+        String method = operation == null || operation.getMethod() == null ? ""
+                : operation.getMethod().toUpperCase(Locale.ROOT);
+        if (operation == null || operation.getPath() == null) {
+            return failed(index, HttpStatus.BAD_REQUEST, "path: must not be blank");
+        }
+
+        UriComponents uri = UriComponentsBuilder.fromUriString(operation.getPath()).build();
+        List<String> segments = uri.getPathSegments();
+        MultiValueMap<String, String> query = uri.getQueryParams();
+        JsonNode body = operation.getBody();
+
+        if (segments.equals(List.of("api", "users", "current")) && method.equals("GET")) {
+            return read(index, () -> userServices.getUser(reader));
+        }
+
+        if (segments.size() < 2 || !segments.get(0).equals("api") || !segments.get(1).equals("contacts")) {
+            return failed(index, HttpStatus.NOT_FOUND, "Not available in a batch");
+        }
+
+        if (segments.size() == 2) {
+            return switch (method) {
+                case "GET" -> new Call(index, false, () -> search(index, reader, query));
+                case "POST" -> write(index,
+                        () -> contactServices.create(user, convert(body, CreateContactRequest.class)));
+                default -> failed(index, HttpStatus.METHOD_NOT_ALLOWED, "Method not allowed");
+            };
+        }
+
+        String contactId = segments.get(2);
+        if (segments.size() == 3) {
+            return switch (method) {
+                case "GET" -> read(index, () -> contactServices.get(reader, contactId));
+                case "PUT" -> write(index, () -> {
+                    UpdateContactRequest request = convert(body, UpdateContactRequest.class);
+                    request.setId(contactId);
+                    return contactServices.udpate(user, request);
+                });
+                case "PATCH" -> write(index,
+                        () -> contactServices.patch(user, contactId, null, convert(body, PatchContactRequest.class)));
+                case "DELETE" -> write(index, () -> {
+                    contactServices.delete(user, contactId);
+                    return "OK";
+                });
+                default -> failed(index, HttpStatus.METHOD_NOT_ALLOWED, "Method not allowed");
+            };
+        }
+
+        if (segments.get(3).equals("addresses") && method.equals("GET")) {
+            if (segments.size() == 4) {
+                return read(index, () -> addressServices.list(reader, contactId));
+            }
+            if (segments.size() == 5) {
+                return read(index, () -> addressServices.get(reader, contactId, segments.get(4)));
+            }
+        }
+
+        return failed(index, HttpStatus.NOT_FOUND, "Not available in a batch");
+    }
+
+    private BatchResult search(int index, User user, MultiValueMap<String, String> query) {
+        int size = intParam(query, "size", 10);
+        SearchContactRequest request = SearchContactRequest.builder()
+                .name(param(query, "name"))
+                .email(param(query, "email"))
+                .phone(param(query, "phone"))
+                .page(intParam(query, "page", 0))
+                .size(size)
+                .cursor(param(query, "cursor"))
+                .build();
+
+        if (request.getCursor() != null) {
+            Window<ContactResponse> window = contactServices.scroll(user, request);
+            return BatchResult.builder()
+                    .index(index)
+                    .status(HttpStatus.OK.value())
+                    .data(window.getContent())
+                    .paging(PagingResponse.builder()
+                            .size(size)
+                            .next(ContactCursor.next(window))
+                            .build())
+                    .build();
+        }
+
+        Page<ContactResponse> page = contactServices.search(user, request);
+        return BatchResult.builder()
+                .index(index)
+                .status(HttpStatus.OK.value())
+                .data(page.getContent())
+                .paging(PagingResponse.builder()
+                        .currentPage(page.getNumber())
+                        .totalPage(page.getTotalPages())
+                        .size(page.getSize())
+                        .build())
+                .build();
+    }
+
+    private static User detachedCopy(User user) {
+        User copy = new User();
+        copy.setUsername(user.getUsername());
+        copy.setName(user.getName());
+        copy.setToken(user.getToken());
+        copy.setTokenExpiredAt(user.getTokenExpiredAt());
+        return copy;
+    }
+
+    private <T> T convert(JsonNode body, Class<T> type) {
+        if (body == null || body.isNull()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body is missing");
+        }
+        try {
+            return objectMapper.treeToValue(body, type);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body is not valid");
+        }
+    }
+
+    private static String param(MultiValueMap<String, String> query, String name) {
+        String value = query.getFirst(name);
+        return value == null ? null : UriUtils.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static int intParam(MultiValueMap<String, String> query, String name, int defaultValue) {
+        String value = param(query, name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + ": must be a number");
+        }
+    }
+
+    private static Call read(int index, Supplier<Object> data) {
+        return new Call(index, false, () -> ok(index, data.get()));
+    }
+
+    private static Call write(int index, Supplier<Object> data) {
+        return new Call(index, true, () -> ok(index, data.get()));
+    }
+
+    private static Call failed(int index, HttpStatus status, String error) {
+        return new Call(index, false, () -> result(index, status, error));
+    }
+
+    private static BatchResult ok(int index, Object data) {
+        return BatchResult.builder()
+                .index(index)
+                .status(HttpStatus.OK.value())
+                .data(data)
+                .build();
+    }
+
+    private static BatchResult result(int index, HttpStatus status, String error) {
+        return BatchResult.builder()
+                .index(index)
+                .status(status.value())
+                .errors(error)
+                .build();
+    }
+}
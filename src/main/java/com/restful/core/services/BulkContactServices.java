@@ -0,0 +1,233 @@
+package com.restful.core.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.ids.TimeOrderedUuid;
+import com.restful.core.model.Contact.BulkAction;
+import com.restful.core.model.Contact.BulkContactOperation;
+import com.restful.core.model.Contact.BulkContactResult;
+import com.restful.core.model.Contact.CreateContactRequest;
+import com.restful.core.model.Contact.UpdateContactRequest;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * Applies many contact creates, updates and deletes in one request. Every
+ * operation is validated up front; the valid ones are then written in chunks,
+ * one transaction per chunk, with inserts going through
+ * {@link EntityManager#persist} so Hibernate can batch them. A chunk that
+ * fails to commit is reported per item and does not stop the chunks after it.
+ */
+@Service
+public class BulkContactServices {
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ContactSearchIndex contactSearchIndex;
+
+    @Autowired
+    private ContactSearchCache contactSearchCache;
+
+    @Value("${app.contacts.bulk.max-operations}")
+    private int maxOperations;
+
+    @Value("${app.contacts.bulk.chunk-size}")
+    private int chunkSize;
+
+    public List<BulkContactResult> apply(User user, List<BulkContactOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No operations");
+        }
+        if (operations.size() > maxOperations) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many operations, at most " + maxOperations + " per request");
+        }
+
+        BulkContactResult[] results = new BulkContactResult[operations.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            String error = validate(operations.get(i));
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = result(i, operations.get(i), HttpStatus.BAD_REQUEST, error);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyChunk(user, operations, chunk, results));
+            } catch (DataAccessException | TransactionException | PersistenceException e) {
+                for (int i : chunk) {
+                    results[i] = result(i, operations.get(i), HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Could not apply operation");
+                }
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private String validate(BulkContactOperation operation) {
+        if (operation == null || operation.getAction() == null) {
+            return "action: must be one of create, update, delete";
+        }
+
+        Object request = switch (operation.getAction()) {
+            case CREATE -> CreateContactRequest.builder()
+                    .firstName(operation.getFirstName())
+                    .lastName(operation.getLastName())
+                    .email(operation.getEmail())
+                    .phone(operation.getPhone())
+                    .build();
+            case UPDATE -> UpdateContactRequest.builder()
+                    .id(operation.getId())
+                    .firstName(operation.getFirstName())
+                    .lastName(operation.getLastName())
+                    .email(operation.getEmail())
+                    .phone(operation.getPhone())
+                    .build();
+            case DELETE -> null;
+        };
+
+        if (request == null) {
+            return operation.getId() == null || operation.getId().isBlank() ? "id: must not be blank" : null;
+        }
+
+        Set<ConstraintViolation<Object>> violations = validationService.violations(request);
+        return violations.isEmpty() ? null : new ConstraintViolationException(violations).getMessage();
+    }
+
+    private void applyChunk(User user, List<BulkContactOperation> operations, List<Integer> chunk,
+            BulkContactResult[] results) {
+        // A managed reference, so persisting a contact never checks whether the owner exists
+        User owner = entityManager.getReference(User.class, user.getUsername());
+
+        // IDs that are not UUIDs stay out of the query and come back as not found
+        List<UUID> ids = chunk.stream()
+                .map(operations::get)
+                .filter(operation -> operation.getAction() != BulkAction.CREATE)
+                .map(operation -> TimeOrderedUuid.parse(operation.getId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<UUID, Contact> contacts = ids.isEmpty() ? new HashMap<>()
+                : entityManager.createQuery(
+                        "select c from Contact c where c.user.username = :username and c.id in :ids", Contact.class)
+                        .setParameter("username", user.getUsername())
+                        .setParameter("ids", ids)
+                        .getResultStream()
+                        .collect(Collectors.toMap(Contact::getId, Function.identity()));
+
+        // Addresses go first in one statement, or removing their contacts would break the foreign key
+        List<UUID> deletedIds = chunk.stream()
+                .map(operations::get)
+                .filter(operation -> operation.getAction() == BulkAction.DELETE)
+                .map(operation -> TimeOrderedUuid.parse(operation.getId()))
+                .filter(contacts::containsKey)
+                .toList();
+        if (!deletedIds.isEmpty()) {
+            addressRepository.deleteByContactIdIn(deletedIds);
+        }
+
+        for (int i : chunk) {
+            BulkContactOperation operation = operations.get(i);
+            switch (operation.getAction()) {
+                case CREATE -> {
+                    Contact contact = new Contact();
+                    contact.setUser(owner);
+                    copy(operation, contact);
+                    entityManager.persist(contact);
+                    contactSearchIndex.saved(user, contact);
+                    results[i] = result(i, contact.getId().toString(), HttpStatus.CREATED, null);
+                }
+                case UPDATE -> {
+                    Contact contact = contacts.get(TimeOrderedUuid.parse(operation.getId()));
+                    if (contact == null) {
+                        results[i] = result(i, operation, HttpStatus.NOT_FOUND, "Contact not found");
+                        continue;
+                    }
+                    copy(operation, contact);
+                    contactSearchIndex.saved(user, contact);
+                    results[i] = result(i, operation, HttpStatus.OK, null);
+                }
+                case DELETE -> {
+                    Contact contact = contacts.remove(TimeOrderedUuid.parse(operation.getId()));
+                    if (contact == null) {
+                        results[i] = result(i, operation, HttpStatus.NOT_FOUND, "Contact not found");
+                        continue;
+                    }
+                    entityManager.remove(contact);
+                    contactSearchIndex.deleted(user, contact.getId().toString());
+                    results[i] = result(i, operation, HttpStatus.OK, null);
+                }
+            }
+        }
+
+        contactSearchCache.invalidate(user);
+
+        // Write the chunk as JDBC batches and keep the persistence context from growing across chunks
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static void copy(BulkContactOperation operation, Contact contact) {
+        contact.setFirstName(operation.getFirstName());
+        contact.setLastName(operation.getLastName());
+        contact.setEmail(operation.getEmail());
+        contact.setPhone(operation.getPhone());
+    }
+
+    private static BulkContactResult result(int index, BulkContactOperation operation, HttpStatus status,
+            String error) {
+        return result(index, operation == null ? null : operation.getId(), status, error);
+    }
+
+    private static BulkContactResult result(int index, String id, HttpStatus status, String error) {
+        return BulkContactResult.builder()
+                .index(index)
+                .id(id)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.restful.core.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.restful.core.ids.TimeOrderedUuid;
+import com.restful.core.model.Contact.ContactResponse;
+
+/**
+ * Opaque cursor for keyset pagination of contacts: the first name and ID of
+ * the last contact on a page, base64url-encoded.
+ */
+public final class ContactCursor {
+    private ContactCursor() {
+    }
+
+    /**
+     * The cursor for the page after this window, or null if it is the last one.
+     */
+    public static String next(Window<ContactResponse> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF((String) position.getKeys().get("firstName"));
+            out.writeUTF((String) position.getKeys().get("id"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * The position a cursor points at; an empty cursor is the first page.
+     */
+    static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            String firstName = in.readUTF();
+            String id = in.readUTF();
+            if (TimeOrderedUuid.parse(id) == null) {
+                throw new IllegalArgumentException("Not a contact ID");
+            }
+            return positionOf(firstName, id);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    static KeysetScrollPosition positionOf(String firstName, String id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("firstName", firstName);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,370 @@
+package com.restful.core.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restful.core.entity.Address;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.imports.ContactRecordReader;
+import com.restful.core.imports.ImportFormat;
+import com.restful.core.imports.ImportRecord;
+import com.restful.core.model.Contact.CreateContactRequest;
+import com.restful.core.model.Contact.ImportJobResponse;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * Imports contacts, with an optional address each, from CSV or vCard files in
+ * the background. The upload is moved to a temporary file and read one record
+ * at a time; each batch of records is normalized and validated in parallel on
+ * a fork/join pool and then written in one transaction. Only one batch and a
+ * bounded list of error messages are ever held, so heap use does not grow
+ * with the file.
+ */
+@Service
+public class ContactImportServices {
+    private static final Logger log = LoggerFactory.getLogger(ContactImportServices.class);
+
+    private static final int MAX_ERRORS = 100;
+
+    // Records per fork/join leaf task
+    private static final int VALIDATION_THRESHOLD = 128;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContactSearchIndex contactSearchIndex;
+
+    @Autowired
+    private ContactSearchCache contactSearchCache;
+
+    @Value("${app.contacts.import.concurrency}")
+    private int concurrency;
+
+    @Value("${app.contacts.import.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.contacts.import.parallelism}")
+    private int parallelism;
+
+    @Value("${app.contacts.import.batch-size}")
+    private int batchSize;
+
+    @Value("${app.contacts.import.job-retention}")
+    private Duration jobRetention;
+
+    private ThreadPoolExecutor executor;
+
+    private ForkJoinPool validationPool;
+
+    private Cache<String, ImportJob> jobs;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("contact-import-"));
+        validationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        jobs = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(jobRetention)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+    public ImportJobResponse start(User user, ImportFormat format, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty");
+        }
+
+        Path upload;
+        try {
+            upload = Files.createTempFile("contact-import-", ".tmp");
+            file.transferTo(upload);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store upload");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), user.getUsername(), format);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(user, job, upload));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            deleteQuietly(upload);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports running, try again later");
+        }
+
+        return job.toResponse();
+    }
+
+    public ImportJobResponse status(User user, String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.username.equals(user.getUsername())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found");
+        }
+        return job.toResponse();
+    }
+
+    private void run(User user, ImportJob job, Path upload) {
+        job.startedAt = System.currentTimeMillis();
+        job.state = "RUNNING";
+
+        try (InputStream in = Files.newInputStream(upload); ContactRecordReader reader = job.format.open(in)) {
+            List<ImportRecord> batch = new ArrayList<>(batchSize);
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    importBatch(user, job, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(user, job, batch);
+            }
+            job.state = "COMPLETED";
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import {} failed after {} rows", job.id, job.rowsRead.get(), e);
+            job.error("Import stopped after " + job.rowsRead.get() + " rows: " + e.getMessage());
+            job.state = "FAILED";
+        } finally {
+            job.finishedAt = System.currentTimeMillis();
+            deleteQuietly(upload);
+        }
+    }
+
+    private void importBatch(User user, ImportJob job, List<ImportRecord> batch) {
+        ImportRecord[] normalized = new ImportRecord[batch.size()];
+        String[] errors = new String[batch.size()];
+        validationPool.invoke(new NormalizeTask(batch, normalized, errors, 0, batch.size()));
+
+        List<ImportRecord> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < normalized.length; i++) {
+            if (errors[i] == null) {
+                valid.add(normalized[i]);
+            } else {
+                job.rowsFailed.incrementAndGet();
+                job.error("line " + normalized[i].line() + ": " + errors[i]);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(user, valid));
+            job.rowsImported.addAndGet(valid.size());
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            log.warn("Import {} could not save a batch", job.id, e);
+            job.rowsFailed.addAndGet(valid.size());
+            job.error("lines " + valid.get(0).line() + "-" + valid.get(valid.size() - 1).line()
+                    + ": could not be saved");
+        }
+    }
+
+    private void write(User user, List<ImportRecord> records) {
+        User owner = entityManager.getReference(User.class, user.getUsername());
+
+        for (ImportRecord record : records) {
+            Contact contact = new Contact();
+            contact.setFirstName(record.firstName());
+            contact.setLastName(record.lastName());
+            contact.setEmail(record.email());
+            contact.setPhone(record.phone());
+            contact.setUser(owner);
+            entityManager.persist(contact);
+            contactSearchIndex.saved(user, contact);
+
+            if (record.hasAddress()) {
+                Address address = new Address();
+                address.setStreet(record.street());
+                address.setCity(record.city());
+                address.setProvince(record.province());
+                address.setCountry(record.country());
+                address.setPostalCode(record.postalCode());
+                address.setContact(contact);
+                entityManager.persist(address);
+            }
+        }
+
+        contactSearchCache.invalidate(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String check(ImportRecord record) {
+        Set<ConstraintViolation<Object>> violations = validationService.violations(CreateContactRequest.builder()
+                .firstName(record.firstName())
+                .lastName(record.lastName())
+                .email(record.email())
+                .phone(record.phone())
+                .build());
+        if (!violations.isEmpty()) {
+            return new ConstraintViolationException(violations).getMessage();
+        }
+
+        if (!record.hasAddress()) {
+            return null;
+        }
+        if (record.country() == null) {
+            return "country: must not be blank";
+        }
+        if (tooLong(record.street(), 200) || tooLong(record.city(), 100) || tooLong(record.province(), 100)
+                || tooLong(record.country(), 100) || tooLong(record.postalCode(), 10)) {
+            return "address: a field is too long";
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private class NormalizeTask extends RecursiveAction {
+        private final List<ImportRecord> records;
+
+        private final ImportRecord[] normalized;
+
+        private final String[] errors;
+
+        private final int from;
+
+        private final int to;
+
+        NormalizeTask(List<ImportRecord> records, ImportRecord[] normalized, String[] errors, int from, int to) {
+            this.records = records;
+            this.normalized = normalized;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= VALIDATION_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    normalized[i] = records.get(i).normalized();
+                    errors[i] = check(normalized[i]);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new NormalizeTask(records, normalized, errors, from, middle),
+                    new NormalizeTask(records, normalized, errors, middle, to));
+        }
+    }
+
+    private static class ImportJob {
+        final String id;
+
+        final String username;
+
+        final ImportFormat format;
+
+        final AtomicLong rowsRead = new AtomicLong();
+
+        final AtomicLong rowsImported = new AtomicLong();
+
+        final AtomicLong rowsFailed = new AtomicLong();
+
+        final List<String> errors = new ArrayList<>();
+
+        volatile String state = "QUEUED";
+
+        volatile long startedAt;
+
+        volatile long finishedAt;
+
+        ImportJob(String id, String username, ImportFormat format) {
+            this.id = id;
+            this.username = username;
+            this.format = format;
+        }
+
+        synchronized void error(String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        synchronized ImportJobResponse toResponse() {
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            double seconds = startedAt > 0 ? Math.max(end - startedAt, 1) / 1000.0 : 0;
+
+            return ImportJobResponse.builder()
+                    .id(id)
+                    .state(state)
+                    .format(format.name().toLowerCase(Locale.ROOT))
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsFailed(rowsFailed.get())
+                    .rowsPerSecond(seconds > 0 ? rowsRead.get() / seconds : 0.0)
+                    .errors(List.copyOf(errors))
+                    .startedAt(startedAt > 0 ? startedAt : null)
+                    .finishedAt(finishedAt > 0 ? finishedAt : null)
+                    .build();
+        }
+    }
+}
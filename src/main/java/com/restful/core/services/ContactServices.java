@@ -1,48 +1,120 @@
 package com.restful.core.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.restful.core.entity.Contact;
 import com.restful.core.entity.User;
+import com.restful.core.ids.TimeOrderedUuid;
+import com.restful.core.model.Address.AddressResponse;
+import com.restful.core.model.Contact.ContactField;
+import com.restful.core.model.Contact.ContactLookupResponse;
 import com.restful.core.model.Contact.ContactResponse;
+import com.restful.core.model.Contact.ContactWithAddressesResponse;
+import com.restful.core.repository.AddressRepository;
 import com.restful.core.repository.ContactRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.criteria.Predicate;
 
 import com.restful.core.model.Contact.CreateContactRequest;
+import com.restful.core.model.Contact.ExportFormat;
+import com.restful.core.model.Contact.LookupContactRequest;
+import com.restful.core.model.Contact.PatchContactRequest;
 import com.restful.core.model.Contact.SearchContactRequest;
 import com.restful.core.model.Contact.UpdateContactRequest;
 
 @Service
 public class ContactServices {
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("firstName")
+            .addColumn("lastName")
+            .addColumn("email")
+            .addColumn("phone")
+            .setUseHeader(true)
+            .build();
+
+    private static final ObjectWriter CSV_WRITER = new CsvMapper().writer(CSV_SCHEMA)
+            .with(JsonGenerator.Feature.IGNORE_UNKNOWN)
+            .with(new SimpleFilterProvider().setFailOnUnknownId(false))
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private AddressRepository addressRepository;
+
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private ContactSearchIndex contactSearchIndex;
+
+    @Autowired
+    private ContactSearchCache contactSearchCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.contacts.lookup.max-ids}")
+    private int lookupMaxIds;
+
+    @Value("${app.contacts.lookup.chunk-size}")
+    private int lookupChunkSize;
+
     private ContactResponse toContactResponse(Contact contact) {
         return ContactResponse.builder()
-                .id(contact.getId())
+                .id(contact.getId().toString())
                 .firstName(contact.getFirstName())
                 .lastName(contact.getLastName())
                 .email(contact.getEmail())
                 .phone(contact.getPhone())
+                .version(contact.getVersion())
                 .build();
     }
 
@@ -51,60 +123,309 @@ public class ContactServices {
         validationService.validate(request);
 
         Contact contact = new Contact();
-        contact.setId(UUID.randomUUID().toString());
         contact.setFirstName(request.getFirstName());
         contact.setLastName(request.getLastName());
         contact.setEmail(request.getEmail());
         contact.setPhone(request.getPhone());
         contact.setUser(user);
         contact = contactRepository.save(contact);
+        contactSearchIndex.saved(user, contact);
+        contactSearchCache.invalidate(user);
 
         return toContactResponse(contact);
     }
 
     @Transactional(readOnly = true)
     public ContactResponse get(User user, String id) {
-        Contact contact = contactRepository.findFirstByUserAndId(user, id).orElseThrow(
+        return get(user, id, null);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactResponse get(User user, String id, Set<ContactField> fields) {
+        return contactRepository.findResponses(user.getUsername(), List.of(contactId(id)), fields).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found"));
+    }
+
+    /**
+     * Reads many contacts by ID with owner-scoped IN queries, one per chunk
+     * of IDs, all in the same read-only transaction. Contacts come back in
+     * request order with repeats dropped; IDs that are malformed or not the
+     * user's are listed as missing instead of failing the request.
+     */
+    @Transactional(readOnly = true)
+    public ContactLookupResponse lookup(User user, LookupContactRequest request) {
+        validationService.validate(request);
+        if (request.getIds().size() > lookupMaxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many IDs, at most " + lookupMaxIds + " per request");
+        }
+
+        Map<String, UUID> requested = new LinkedHashMap<>();
+        for (String id : request.getIds()) {
+            requested.putIfAbsent(id, TimeOrderedUuid.parse(id));
+        }
+
+        List<UUID> ids = requested.values().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<UUID, ContactResponse> found = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += lookupChunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + lookupChunkSize, ids.size()));
+            for (ContactResponse contact : contactRepository.findResponses(user.getUsername(), chunk,
+                    request.getFields())) {
+                found.put(UUID.fromString(contact.getId()), contact);
+            }
+        }
+
+        List<ContactResponse> contacts = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        Set<UUID> returned = new HashSet<>();
+        requested.forEach((id, uuid) -> {
+            ContactResponse contact = uuid == null ? null : found.get(uuid);
+            if (contact == null) {
+                missing.add(id);
+            } else if (returned.add(uuid)) {
+                contacts.add(contact);
+            }
+        });
+
+        return ContactLookupResponse.builder()
+                .contacts(contacts)
+                .missing(missing)
+                .build();
+    }
+
+    /**
+     * Reads only the version column, so a conditional GET can be answered
+     * without loading the contact.
+     */
+    @Transactional(readOnly = true)
+    public long version(User user, String id) {
+        return contactRepository.findVersionByUsernameAndId(user.getUsername(), contactId(id)).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found"));
+    }
 
-        return toContactResponse(contact);
+    /**
+     * Changes whenever any of the user's contacts change, so it can tag
+     * search results.
+     */
+    public long searchGeneration(User user) {
+        return contactSearchCache.generation(user);
     }
 
     @Transactional
     public ContactResponse udpate(User user, UpdateContactRequest request) {
         validationService.validate(request);
 
-        Contact contact = contactRepository.findFirstByUserAndId(user, request.getId()).orElseThrow(
+        Contact contact = contactRepository.findFirstByUserAndId(user, contactId(request.getId())).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found"));
 
-        contact.setId(UUID.randomUUID().toString());
         contact.setFirstName(request.getFirstName());
         contact.setLastName(request.getLastName());
         contact.setEmail(request.getEmail());
         contact.setPhone(request.getPhone());
-        contact = contactRepository.save(contact);
+        // Flush now so the response carries the incremented version
+        contact = contactRepository.saveAndFlush(contact);
+        contactSearchIndex.saved(user, contact);
+        contactSearchCache.invalidate(user);
 
         return toContactResponse(contact);
     }
 
+    /**
+     * Writes only the supplied fields in one owner-scoped UPDATE, with no read
+     * before it. With an expected version the UPDATE only matches that
+     * version, so concurrent writers are detected without holding a row lock
+     * across a read-modify-write. The new state is read back afterwards for
+     * the response and the search index.
+     */
+    @Transactional
+    public ContactResponse patch(User user, String id, Long expectedVersion, PatchContactRequest request) {
+        validationService.validate(request);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        putIfPresent(values, "firstName", request.getFirstName());
+        putIfPresent(values, "lastName", request.getLastName());
+        putIfPresent(values, "email", request.getEmail());
+        putIfPresent(values, "phone", request.getPhone());
+        if (values.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No fields to update");
+        }
+
+        UUID contactId = contactId(id);
+        if (contactRepository.updateFields(user.getUsername(), contactId, expectedVersion, values) == 0) {
+            // Only a failed update pays for telling a stale version from a missing contact
+            if (expectedVersion != null
+                    && contactRepository.findVersionByUsernameAndId(user.getUsername(), contactId).isPresent()) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Contact has been modified");
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found");
+        }
+
+        ContactResponse contactResponse = get(user, id);
+        contactSearchIndex.saved(user, contactResponse);
+        contactSearchCache.invalidate(user);
+
+        return contactResponse;
+    }
+
+    // Anything that is not a UUID cannot name a contact
+    private static UUID contactId(String id) {
+        UUID contactId = TimeOrderedUuid.parse(id);
+        if (contactId == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found");
+        }
+        return contactId;
+    }
+
+    private static void putIfPresent(Map<String, Object> values, String attribute, String value) {
+        if (Objects.nonNull(value)) {
+            values.put(attribute, value);
+        }
+    }
+
     @Transactional
     public void delete(User user, String contactId) {
-        Contact contact = contactRepository.findFirstByUserAndId(user, contactId).orElseThrow(
+        Contact contact = contactRepository.findFirstByUserAndId(user, contactId(contactId)).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contact not found"));
 
+        addressRepository.deleteByContactIdIn(List.of(contact.getId()));
         contactRepository.delete(contact);
+        contactSearchIndex.deleted(user, contact.getId().toString());
+        contactSearchCache.invalidate(user);
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional, so a cached answer does not take a connection from the
+    // pool; on a miss each query runs on its own.
     public Page<ContactResponse> search(User user, SearchContactRequest request) {
-        Specification<Contact> spec = (root, q, builder) -> {
+        return contactSearchCache.page(user, request, () -> searchUncached(user, request));
+    }
+
+    public Window<ContactResponse> scroll(User user, SearchContactRequest request) {
+        return contactSearchCache.window(user, request, () -> scrollUncached(user, request));
+    }
+
+    private Page<ContactResponse> searchUncached(User user, SearchContactRequest request) {
+        return searchTimer("page").record(() -> {
+            if (contactSearchIndex.isEnabled()) {
+                return searchIndexed(user, request);
+            }
+
+            Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+
+            return contactRepository.findAllResponses(searchSpecification(user, request), pageable,
+                    request.getFields());
+        });
+    }
+
+    /**
+     * Keyset pagination ordered by first name and ID. Each page seeks past the
+     * request's cursor instead of skipping rows, and no count is run.
+     */
+    private Window<ContactResponse> scrollUncached(User user, SearchContactRequest request) {
+        return searchTimer("cursor").record(() -> scrollSearch(user, request));
+    }
+
+    private Window<ContactResponse> scrollSearch(User user, SearchContactRequest request) {
+        KeysetScrollPosition position = ContactCursor.decode(request.getCursor());
+        String afterFirstName = (String) position.getKeys().get("firstName");
+        String afterId = (String) position.getKeys().get("id");
+        UUID afterUuid = afterId == null ? null : UUID.fromString(afterId);
+        int size = request.getSize();
+
+        List<ContactResponse> contactResponses;
+        if (contactSearchIndex.isEnabled()) {
+            List<String> ids = contactSearchIndex.searchAfter(user, request, afterFirstName, afterId, size + 1);
+            contactResponses = findAllInOrder(user, ids, request.getFields());
+        } else {
+            contactResponses = contactRepository.findResponsesAfter(searchSpecification(user, request),
+                    afterFirstName, afterUuid, size + 1, request.getFields());
+        }
+
+        // One row past the page tells whether another page follows
+        boolean hasNext = contactResponses.size() > size;
+        List<ContactResponse> page = hasNext ? contactResponses.subList(0, size) : contactResponses;
+
+        return Window.from(page, i -> ContactCursor.positionOf(page.get(i).getFirstName(), page.get(i).getId()),
+                hasNext);
+    }
+
+    /**
+     * A page of contacts with their addresses in a fixed number of queries:
+     * the page, its count, and one batch load of the addresses of every
+     * contact on it (see {@link Contact#ADDRESS_BATCH_SIZE}). Larger pages
+     * would need more than one batch, so they are refused.
+     */
+    @Transactional(readOnly = true)
+    public Page<ContactWithAddressesResponse> searchWithAddresses(User user, SearchContactRequest request) {
+        if (request.getSize() > Contact.ADDRESS_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Size must be at most " + Contact.ADDRESS_BATCH_SIZE);
+        }
+
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), Sort.by("firstName", "id"));
+        return contactRepository.findAll(searchSpecification(user, request), pageable)
+                .map(contact -> ContactWithAddressesResponse.builder()
+                        .id(contact.getId().toString())
+                        .firstName(contact.getFirstName())
+                        .lastName(contact.getLastName())
+                        .email(contact.getEmail())
+                        .phone(contact.getPhone())
+                        .addresses(contact.getAddresses().stream()
+                                .map(address -> AddressResponse.builder()
+                                        .id(address.getId().toString())
+                                        .street(address.getStreet())
+                                        .city(address.getCity())
+                                        .province(address.getProvince())
+                                        .country(address.getCountry())
+                                        .postalCode(address.getPostalCode())
+                                        .build())
+                                .toList())
+                        .build());
+    }
+
+    /**
+     * Writes all of the user's contacts to {@code out} row by row while the
+     * result set is streamed from the database, so memory use does not depend on how
+     * many contacts there are. Flushing is left to the output stream's buffer.
+     */
+    @Transactional(readOnly = true)
+    public void export(User user, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ContactResponse> contacts = contactRepository.streamResponses(user.getUsername())) {
+            Iterator<ContactResponse> iterator = contacts.iterator();
+
+            if (format == ExportFormat.CSV) {
+                try (SequenceWriter writer = CSV_WRITER.writeValues(out)) {
+                    while (iterator.hasNext()) {
+                        writer.write(iterator.next());
+                    }
+                }
+                return;
+            }
+
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+    }
+
+    private Specification<Contact> searchSpecification(User user, SearchContactRequest request) {
+        return (root, q, builder) -> {
             List<Predicate> predicates = new ArrayList<>();
             predicates.add(builder.equal(root.get("user"), user));
 
             if (Objects.nonNull(request.getName())) {
                 predicates.add(builder.or(
-                        builder.like(root.get("firstname"), "%" + request.getName() + "%"),
-                        builder.like(root.get("lastname"), "%" + request.getName() + "%")));
+                        builder.like(root.get("firstName"), "%" + request.getName() + "%"),
+                        builder.like(root.get("lastName"), "%" + request.getName() + "%")));
             }
 
             if (Objects.nonNull(request.getEmail())) {
@@ -117,14 +438,40 @@ public class ContactServices {
 
             return q.where(predicates.toArray(new Predicate[] {})).getRestriction();
         };
+    }
 
+    // The index narrows the search to matching IDs; only the requested page is read back.
+    private Page<ContactResponse> searchIndexed(User user, SearchContactRequest request) {
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+        List<String> ids = contactSearchIndex.search(user, request);
+
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
 
-        Page<Contact> contacts = contactRepository.findAll(spec, pageable);
+        return new PageImpl<>(findAllInOrder(user, ids.subList(from, to), request.getFields()), pageable,
+                ids.size());
+    }
+
+    // Searches that missed the cache, by whether the trigram index or SQL alone found the IDs
+    private Timer searchTimer(String paging) {
+        return Timer.builder("contacts.search.duration")
+                .tag("paging", paging)
+                .tag("source", contactSearchIndex.isEnabled() ? "index" : "database")
+                .register(meterRegistry);
+    }
 
-        List<ContactResponse> contactResponses = contacts.getContent().stream()
-                .map(this::toContactResponse).toList();
+    private List<ContactResponse> findAllInOrder(User user, List<String> ids, Set<ContactField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        return new PageImpl<>(contactResponses, pageable, contacts.getTotalElements());
+        Map<String, ContactResponse> contacts = contactRepository
+                .findResponses(user.getUsername(), ids.stream().map(UUID::fromString).toList(), fields)
+                .stream()
+                .collect(Collectors.toMap(ContactResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(contacts::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
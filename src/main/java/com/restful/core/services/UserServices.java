@@ -2,16 +2,18 @@ package com.restful.core.services;
 
 import java.util.Objects;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.restful.core.model.User.RegisterUserRequest;
 import com.restful.core.model.User.UpdateUserRequest;
 import com.restful.core.repository.UserRepository;
-import com.restful.core.security.BCrypt;
+import com.restful.core.security.PasswordHasher;
+import com.restful.core.security.TokenCache;
 
 import com.restful.core.entity.User;
 import com.restful.core.model.User.UserResponse;
@@ -24,45 +26,70 @@ public class UserServices {
     @Autowired
     private ValidationService validationService;
 
-    @Transactional
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Hashes before the transaction starts, so no pooled connection waits on the BCrypt pool
     public void register(RegisterUserRequest request) {
         validationService.validate(request);
+        String password = passwordHasher.hash(request.getPassword());
 
-        if (userRepository.existsById(request.getUsername())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already registered");
-        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.existsById(request.getUsername())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already registered");
+            }
 
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setPassword(BCrypt.hashpw(request.getPassword(), BCrypt.gensalt()));
-        user.setName(request.getName());
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(password);
+            user.setName(request.getName());
 
-        userRepository.save(user);
+            userRepository.save(user);
+        });
     }
 
     public UserResponse getUser(User user) {
+        User loaded = loaded(user);
         return UserResponse.builder()
-                .username(user.getUsername())
-                .name(user.getName())
+                .username(loaded.getUsername())
+                .name(loaded.getName())
                 .build();
     }
 
-    @Transactional
+    // updateProfile is its own transaction, started only once the new password is hashed
     public UserResponse update(User user, UpdateUserRequest request) {
         validationService.validate(request);
 
-        if (Objects.nonNull(request.getName())) {
-            user.setName(request.getName());
+        String password = Objects.nonNull(request.getPassword()) ? passwordHasher.hash(request.getPassword()) : null;
+
+        // One UPDATE of just these columns instead of merging the resolved user, which reads the row first
+        if (userRepository.updateProfile(user.getUsername(), request.getName(), password) == 0) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
-        if (Objects.nonNull(request.getPassword())) {
-            user.setPassword(BCrypt.hashpw(request.getPassword(), BCrypt.gensalt()));
+        // Signed tokens are never cached, and their callers arrive unloaded
+        if (Hibernate.isInitialized(user)) {
+            tokenCache.evict(user.getToken());
         }
 
-        userRepository.save(user);
-
         return UserResponse.builder()
                 .username(user.getUsername())
-                .name(user.getName())
+                .name(Objects.nonNull(request.getName()) ? request.getName() : loaded(user).getName())
                 .build();
     }
+
+    // /api/users/current has no session in view, so a signed-token caller's lazy
+    // reference cannot load itself; it is read here on a connection of its own
+    private User loaded(User user) {
+        if (Hibernate.isInitialized(user)) {
+            return user;
+        }
+        return userRepository.findById(user.getUsername()).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+    }
 }
@@ -15,9 +15,13 @@ public class ValidationService {
     private Validator validator;
 
     public void validate(Object request) {
-        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        Set<ConstraintViolation<Object>> violations = violations(request);
         if (!violations.isEmpty()) {
             throw new ConstraintViolationException(violations);
         }
     }
+
+    public Set<ConstraintViolation<Object>> violations(Object request) {
+        return validator.validate(request);
+    }
 }
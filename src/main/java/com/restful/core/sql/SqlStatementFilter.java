@@ -0,0 +1,86 @@
+package com.restful.core.sql;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each request runs, publishes the count per
+ * endpoint as {@code http.server.requests.statements}, and logs a warning
+ * when a request goes over {@code app.sql.request-budget} or runs one select
+ * {@code app.sql.repeat-threshold} times or more. Only statements on the
+ * request thread are seen, so streamed exports and the concurrent reads of a
+ * batch are not counted.
+ */
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 = no limit
+    @Value("${app.sql.request-budget}")
+    private int requestBudget;
+
+    @Value("${app.sql.repeat-threshold}")
+    private int repeatThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatements.Recording recording = SqlStatements.record();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recording.close();
+            report(request, recording);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatements.Recording recording) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(recording.count());
+
+        if (requestBudget > 0 && recording.count() > requestBudget) {
+            log.warn("{} {} ran {} SQL statements, over the budget of {}", request.getMethod(), uri,
+                    recording.count(), requestBudget);
+        }
+
+        recording.repeatedSelects(repeatThreshold).forEach((shape, times) -> {
+            Counter.builder("http.server.requests.repeated.selects")
+                    .description("Requests that ran one select many times, a likely N+1")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran the same select {} times, likely N+1: {}", request.getMethod(), uri, times, shape);
+        });
+    }
+}
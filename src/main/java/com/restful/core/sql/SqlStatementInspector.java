@@ -0,0 +1,16 @@
+package com.restful.core.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands every statement Hibernate prepares to {@link SqlStatements}.
+ * Registered by class name through
+ * {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        SqlStatements.add(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,98 @@
+package com.restful.core.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread.
+ * Recordings nest, so a test can record around requests that are recorded
+ * themselves; each statement counts towards every open recording.
+ * <p>
+ * Statements are grouped by shape: whitespace collapsed and any
+ * {@code in (?, ?, ...)} list reduced to one parameter, so one query run for
+ * each row of a page shows up as one shape with a high count.
+ */
+public final class SqlStatements {
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private SqlStatements() {
+    }
+
+    public static Recording record() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static void add(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return;
+        }
+
+        String shape = shapeOf(sql);
+        for (; recording != null; recording = recording.outer) {
+            recording.add(shape);
+        }
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+    }
+
+    public static final class Recording implements AutoCloseable {
+        private final Recording outer;
+
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+        private int count;
+
+        private Recording(Recording outer) {
+            this.outer = outer;
+        }
+
+        private void add(String shape) {
+            count++;
+            shapes.merge(shape, 1, Integer::sum);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * Selects of one shape run at least {@code threshold} times, the usual
+         * sign of an N+1. Repeated inserts and updates are batch writes and
+         * are left out.
+         */
+        public Map<String, Integer> repeatedSelects(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            shapes.forEach((shape, times) -> {
+                if (times >= threshold && shape.toLowerCase(Locale.ROOT).startsWith("select")) {
+                    repeated.put(shape, times);
+                }
+            });
+            return repeated;
+        }
+
+        public Map<String, Integer> shapes() {
+            return new LinkedHashMap<>(shapes);
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+}
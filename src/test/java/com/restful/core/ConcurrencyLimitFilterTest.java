@@ -0,0 +1,76 @@
+package com.restful.core;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.restful.core.entity.User;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+
+@SpringBootTest(properties = {
+        "app.server.max-concurrent-requests=1",
+        "app.server.max-queue-wait=PT0.1S"
+})
+@AutoConfigureMockMvc
+public class ConcurrencyLimitFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache.clear();
+        addressRepository.deleteAll();
+        contactRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("test");
+        user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+        user.setName("Test User");
+        user.setToken("test");
+        user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+        userRepository.save(user);
+    }
+
+    @Test
+    void streamedExportHoldsItsSlotUntilComplete() throws Exception {
+        MvcResult export = mockMvc.perform(
+                get("/api/contacts/export")
+                        .header("X-API-TOKEN", "test"))
+                .andExpectAll(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(get("/api/users/current").header("X-API-TOKEN", "test"))
+                .andExpectAll(status().isServiceUnavailable());
+
+        mockMvc.perform(asyncDispatch(export)).andExpectAll(status().isOk());
+
+        mockMvc.perform(get("/api/users/current").header("X-API-TOKEN", "test"))
+                .andExpectAll(status().isOk());
+    }
+}
@@ -0,0 +1,261 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.Address;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Address.AddressResponse;
+import com.restful.core.model.Address.CreateAddressRequest;
+import com.restful.core.model.Address.UpdateAddressRequest;
+import com.restful.core.model.Contact.ContactWithAddressesResponse;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AddressControllerTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
+        private Contact contact;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                user.setToken("test");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+
+                contact = new Contact();
+                contact.setUser(user);
+                contact.setFirstName("Alice");
+                contact.setLastName("Walker");
+                contact.setEmail("alice@example.com");
+                contact.setPhone("1234567890");
+                contactRepository.save(contact);
+        }
+
+        @Test
+        void createAddressBadRequest() throws Exception {
+                CreateAddressRequest request = CreateAddressRequest.builder()
+                                .city("Jakarta")
+                                .country("")
+                                .build();
+
+                mockMvc.perform(
+                                post("/api/contacts/" + contact.getId() + "/addresses")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void createAddressSuccess() throws Exception {
+                CreateAddressRequest request = CreateAddressRequest.builder()
+                                .street("Jalan Sudirman")
+                                .city("Jakarta")
+                                .province("DKI Jakarta")
+                                .country("Indonesia")
+                                .postalCode("10220")
+                                .build();
+
+                String content = mockMvc.perform(
+                                post("/api/contacts/" + contact.getId() + "/addresses")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<AddressResponse> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertNull(response.getErrors());
+                assertNotNull(response.getData().getId());
+                assertEquals("Jakarta", response.getData().getCity());
+                assertEquals("Indonesia", response.getData().getCountry());
+                assertEquals(1, addressRepository.count());
+        }
+
+        @Test
+        void createAddressContactNotFound() throws Exception {
+                CreateAddressRequest request = CreateAddressRequest.builder()
+                                .country("Indonesia")
+                                .build();
+
+                mockMvc.perform(
+                                post("/api/contacts/" + UUID.randomUUID() + "/addresses")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isNotFound());
+        }
+
+        @Test
+        void getAddressSuccess() throws Exception {
+                Address address = saveAddress("Jakarta");
+
+                String content = mockMvc.perform(
+                                get("/api/contacts/" + contact.getId() + "/addresses/" + address.getId())
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<AddressResponse> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertEquals(address.getId().toString(), response.getData().getId());
+                assertEquals("Jakarta", response.getData().getCity());
+        }
+
+        @Test
+        void getAddressNotFound() throws Exception {
+                Address address = saveAddress("Jakarta");
+
+                mockMvc.perform(
+                                get("/api/contacts/" + UUID.randomUUID() + "/addresses/" + address.getId())
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isNotFound());
+
+                mockMvc.perform(
+                                get("/api/contacts/" + contact.getId() + "/addresses/not-an-id")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isNotFound());
+        }
+
+        @Test
+        void updateAddressSuccess() throws Exception {
+                Address address = saveAddress("Jakarta");
+
+                UpdateAddressRequest request = UpdateAddressRequest.builder()
+                                .city("Bandung")
+                                .province("Jawa Barat")
+                                .country("Indonesia")
+                                .build();
+
+                String content = mockMvc.perform(
+                                put("/api/contacts/" + contact.getId() + "/addresses/" + address.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<AddressResponse> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertEquals("Bandung", response.getData().getCity());
+                assertEquals("Bandung", addressRepository.findById(address.getId()).orElseThrow().getCity());
+        }
+
+        @Test
+        void deleteAddressSuccess() throws Exception {
+                Address address = saveAddress("Jakarta");
+
+                mockMvc.perform(
+                                delete("/api/contacts/" + contact.getId() + "/addresses/" + address.getId())
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk());
+
+                assertFalse(addressRepository.existsById(address.getId()));
+        }
+
+        @Test
+        void listAddresses() throws Exception {
+                saveAddress("Jakarta");
+                saveAddress("Bandung");
+
+                String content = mockMvc.perform(
+                                get("/api/contacts/" + contact.getId() + "/addresses")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<AddressResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertEquals(2, response.getData().size());
+        }
+
+        @Test
+        void searchContactsWithAddresses() throws Exception {
+                saveAddress("Jakarta");
+                saveAddress("Bandung");
+
+                String content = mockMvc.perform(
+                                get("/api/contacts/with-addresses?name=alice")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<ContactWithAddressesResponse>> response = objectMapper.readValue(content,
+                                new TypeReference<>() {
+                                });
+                assertEquals(1, response.getData().size());
+                assertEquals(2, response.getData().get(0).getAddresses().size());
+        }
+
+        private Address saveAddress(String city) {
+                Address address = new Address();
+                address.setContact(contact);
+                address.setCity(city);
+                address.setCountry("Indonesia");
+                return addressRepository.save(address);
+        }
+}
@@ -0,0 +1,156 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.User;
+import com.restful.core.model.TokenResponse;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.User.LoginUserRequest;
+import com.restful.core.model.User.UserResponse;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.SignedTokens;
+import com.restful.core.security.TokenCache;
+
+@SpringBootTest(properties = {
+                "app.auth.token-mode=signed",
+                "app.auth.signing-key=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="
+})
+@AutoConfigureMockMvc
+public class AuthControllerSignedTokenTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setName("Test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                userRepository.save(user);
+        }
+
+        @Test
+        void signedTokenLifecycle() throws Exception {
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("test");
+                request.setPassword("test");
+
+                String body = mockMvc.perform(
+                                post("/api/auth/login")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<TokenResponse> response = objectMapper.readValue(body,
+                                new TypeReference<WebResponse<TokenResponse>>() {
+                                });
+                String token = response.getData().getToken();
+                assertNotNull(token);
+                assertTrue(token.startsWith(SignedTokens.PREFIX));
+                assertNull(userRepository.findById("test").orElseThrow().getToken());
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", token))
+                                .andExpectAll(status().isOk());
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", token.substring(0, token.length() - 2) + "xx"))
+                                .andExpectAll(status().isUnauthorized());
+
+                mockMvc.perform(
+                                delete("/api/auth/logout")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", token))
+                                .andExpectAll(status().isOk());
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", token))
+                                .andExpectAll(status().isUnauthorized());
+        }
+
+        @Test
+        void signedTokenUpdatesProfile() throws Exception {
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("test");
+                request.setPassword("test");
+
+                String body = mockMvc.perform(
+                                post("/api/auth/login")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                String token = objectMapper.readValue(body, new TypeReference<WebResponse<TokenResponse>>() {
+                }).getData().getToken();
+
+                // No name in the request, so the response reads it from the stored user
+                body = mockMvc.perform(
+                                patch("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", token)
+                                                .content("{\"password\":\"changed\"}"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<UserResponse> response = objectMapper.readValue(body,
+                                new TypeReference<WebResponse<UserResponse>>() {
+                                });
+                assertEquals("Test", response.getData().getName());
+                assertTrue(BCrypt.checkpw("changed", userRepository.findById("test").orElseThrow().getPassword()));
+        }
+
+        @Test
+        void opaqueTokenStillAccepted() throws Exception {
+                User user = userRepository.findById("test").orElseThrow();
+                user.setToken("test-token");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", "test-token"))
+                                .andExpectAll(status().isOk());
+        }
+}
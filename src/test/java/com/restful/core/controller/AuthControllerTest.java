@@ -10,7 +10,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -25,6 +27,10 @@ import org.springframework.http.MediaType;
 
 import com.restful.core.entity.User;
 import com.restful.core.security.BCrypt;
+import com.restful.core.security.PasswordHasher;
+import com.restful.core.security.TokenCache;
+import com.restful.core.security.TokenSweeper;
+import com.restful.core.sql.SqlStatements;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -38,8 +44,18 @@ public class AuthControllerTest {
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private TokenSweeper tokenSweeper;
+
+        @Autowired
+        private PasswordHasher passwordHasher;
+
         @BeforeEach
         void setUp() {
+                tokenCache.clear();
                 userRepository.deleteAll();
         }
 
@@ -178,4 +194,124 @@ public class AuthControllerTest {
                                         assertNull(userInDb.getTokenExpiredAt());
                                 });
         }
-}
\ No newline at end of file
+
+        @Test
+        void logoutEvictsCachedToken() throws Exception {
+                User user = new User();
+                user.setUsername("test");
+                user.setName("Test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setToken("test-token");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", "test-token"))
+                                .andExpectAll(status().isOk());
+
+                mockMvc.perform(
+                                delete("/api/auth/logout")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", "test-token"))
+                                .andExpectAll(status().isOk());
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", "test-token"))
+                                .andExpectAll(status().isUnauthorized());
+        }
+
+        @Test
+        void sweeperClearsExpiredTokens() throws Exception {
+                User expired = new User();
+                expired.setUsername("expired");
+                expired.setName("Expired");
+                expired.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                expired.setToken("expired-token");
+                expired.setTokenExpiredAt(System.currentTimeMillis() - 1000L);
+                userRepository.save(expired);
+
+                User active = new User();
+                active.setUsername("active");
+                active.setName("Active");
+                active.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                active.setToken("active-token");
+                active.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(active);
+
+                tokenSweeper.sweep();
+
+                User expiredInDb = userRepository.findById("expired").orElseThrow();
+                assertNull(expiredInDb.getToken());
+                assertNull(expiredInDb.getTokenExpiredAt());
+                assertEquals("active-token", userRepository.findById("active").orElseThrow().getToken());
+        }
+
+        @Test
+        void loginRehashesOutdatedCost() throws Exception {
+                User user = new User();
+                user.setUsername("test");
+                user.setName("Test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt(4)));
+                userRepository.save(user);
+
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("test");
+                request.setPassword("test");
+
+                mockMvc.perform(
+                                post("/api/auth/login")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk());
+
+                String expectedPrefix = String.format("$2a$%02d$", passwordHasher.getLogRounds());
+                String hashed = userRepository.findById("test").orElseThrow().getPassword();
+                for (int i = 0; i < 100 && !hashed.startsWith(expectedPrefix); i++) {
+                        Thread.sleep(100);
+                        hashed = userRepository.findById("test").orElseThrow().getPassword();
+                }
+
+                assertTrue(hashed.startsWith(expectedPrefix));
+                assertTrue(BCrypt.checkpw("test", hashed));
+        }
+
+        @Test
+        void loginThrottledPerUsername() throws Exception {
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("flood");
+                request.setPassword("wrongpassword");
+
+                for (int i = 0; i < 10; i++) {
+                        mockMvc.perform(
+                                        post("/api/auth/login")
+                                                        .accept(MediaType.APPLICATION_JSON)
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(objectMapper.writeValueAsString(request)))
+                                        .andExpectAll(status().isUnauthorized());
+                }
+
+                try (SqlStatements.Recording recording = SqlStatements.record()) {
+                        mockMvc.perform(
+                                        post("/api/auth/login")
+                                                        .accept(MediaType.APPLICATION_JSON)
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(objectMapper.writeValueAsString(request)))
+                                        .andExpectAll(status().isTooManyRequests())
+                                        .andDo(result -> {
+                                                WebResponse<String> response = objectMapper
+                                                                .readValue(result.getResponse().getContentAsString(),
+                                                                                new TypeReference<WebResponse<String>>() {
+                                                                                });
+                                                assertNotNull(response.getErrors());
+                                        });
+
+                        // Refused before the user is read, so no connection is taken from the pool
+                        assertEquals(0, recording.count());
+                }
+        }
+}
@@ -0,0 +1,123 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Batch.BatchResult;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.SignedTokens;
+import com.restful.core.security.TokenCache;
+
+// Signed tokens resolve to a lazy user proxy, which the concurrent reads must not touch
+@SpringBootTest(properties = {
+                "app.auth.token-mode=signed",
+                "app.auth.signing-key=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="
+})
+@AutoConfigureMockMvc
+public class BatchControllerSignedTokenTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
+        @Autowired
+        private SignedTokens signedTokens;
+
+        private Contact contact;
+
+        private String token;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                userRepository.save(user);
+
+                contact = new Contact();
+                contact.setUser(user);
+                contact.setFirstName("Alice");
+                contact.setLastName("Walker");
+                contact.setEmail("alice@example.com");
+                contact.setPhone("1234567890");
+                contactRepository.save(contact);
+
+                token = signedTokens.sign("test", System.currentTimeMillis() + 100000000L);
+        }
+
+        @Test
+        void concurrentReadsWithSignedToken() throws Exception {
+                // Reads are dealt round-robin, so the current-user reads land on executor threads
+                String operations = "{\"operations\":["
+                                + "{\"method\":\"GET\",\"path\":\"/api/contacts/" + contact.getId() + "\"},"
+                                + "{\"method\":\"GET\",\"path\":\"/api/users/current\"},"
+                                + "{\"method\":\"GET\",\"path\":\"/api/contacts?name=ali\"},"
+                                + "{\"method\":\"GET\",\"path\":\"/api/users/current\"}]}";
+
+                String content = mockMvc.perform(
+                                post("/api/batch")
+                                                .header("X-API-TOKEN", token)
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(operations))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<BatchResult>> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertNull(response.getErrors());
+                assertEquals(List.of(200, 200, 200, 200),
+                                response.getData().stream().map(BatchResult::getStatus).toList());
+                assertEquals("Test User", ((Map<?, ?>) response.getData().get(1).getData()).get("name"));
+                assertEquals("Test User", ((Map<?, ?>) response.getData().get(3).getData()).get("name"));
+        }
+}
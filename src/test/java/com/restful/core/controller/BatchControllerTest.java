@@ -0,0 +1,197 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Batch.BatchOperation;
+import com.restful.core.model.Batch.BatchRequest;
+import com.restful.core.model.Batch.BatchResult;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BatchControllerTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
+        private Contact contact;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                user.setToken("test");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+
+                contact = new Contact();
+                contact.setUser(user);
+                contact.setFirstName("Alice");
+                contact.setLastName("Walker");
+                contact.setEmail("alice@example.com");
+                contact.setPhone("1234567890");
+                contactRepository.save(contact);
+        }
+
+        @Test
+        void batchOfReads() throws Exception {
+                List<BatchResult> results = batch(BatchRequest.builder()
+                                .operations(List.of(
+                                                operation("GET", "/api/users/current", null),
+                                                operation("GET", "/api/contacts/" + contact.getId(), null),
+                                                operation("GET", "/api/contacts?name=ali&size=5", null),
+                                                operation("GET", "/api/contacts/" + UUID.randomUUID(), null),
+                                                operation("GET", "/api/auth/logout", null)))
+                                .build());
+
+                assertEquals(List.of(200, 200, 200, 404, 404), results.stream().map(BatchResult::getStatus).toList());
+                assertEquals(1, ((List<?>) results.get(2).getData()).size());
+                assertEquals(5, results.get(2).getPaging().getSize());
+        }
+
+        @Test
+        void readsSeeWritesFromTheSameBatch() throws Exception {
+                List<BatchResult> results = batch(BatchRequest.builder()
+                                .operations(List.of(
+                                                operation("GET", "/api/contacts?name=bob", null),
+                                                operation("POST", "/api/contacts",
+                                                                "{\"firstName\":\"Bob\",\"email\":\"bob@example.com\"}")))
+                                .build());
+
+                assertEquals(200, results.get(1).getStatus());
+                assertEquals(1, ((List<?>) results.get(0).getData()).size());
+        }
+
+        @Test
+        void transactionalWritesRollBackTogether() throws Exception {
+                List<BatchResult> results = batch(BatchRequest.builder()
+                                .transactional(true)
+                                .operations(List.of(
+                                                operation("POST", "/api/contacts", "{\"firstName\":\"Bob\"}"),
+                                                operation("DELETE", "/api/contacts/" + UUID.randomUUID(), null),
+                                                operation("DELETE", "/api/contacts/" + contact.getId(), null)))
+                                .build());
+
+                assertEquals(List.of(424, 404, 424), results.stream().map(BatchResult::getStatus).toList());
+                assertEquals(1, contactRepository.count());
+        }
+
+        @Test
+        void writesWithoutTransactionKeepTheirResults() throws Exception {
+                List<BatchResult> results = batch(BatchRequest.builder()
+                                .operations(List.of(
+                                                operation("POST", "/api/contacts", "{\"firstName\":\"Bob\"}"),
+                                                operation("DELETE", "/api/contacts/" + UUID.randomUUID(), null),
+                                                operation("POST", "/api/contacts", "{\"firstName\":\"\"}")))
+                                .build());
+
+                assertEquals(List.of(200, 404, 400), results.stream().map(BatchResult::getStatus).toList());
+                assertEquals(2, contactRepository.count());
+        }
+
+        @Test
+        void tooManyOperations() throws Exception {
+                List<BatchOperation> operations = Collections.nCopies(21,
+                                operation("GET", "/api/users/current", null));
+
+                mockMvc.perform(
+                                post("/api/batch")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(
+                                                                BatchRequest.builder().operations(operations).build())))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void batchUnauthorized() throws Exception {
+                mockMvc.perform(
+                                post("/api/batch")
+                                                .header("X-API-TOKEN", "wrong")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content("{\"operations\":[{\"method\":\"GET\",\"path\":\"/api/users/current\"}]}"))
+                                .andExpectAll(status().isUnauthorized());
+        }
+
+        private BatchOperation operation(String method, String path, String body) {
+                try {
+                        return BatchOperation.builder()
+                                        .method(method)
+                                        .path(path)
+                                        .body(body == null ? null : objectMapper.readTree(body))
+                                        .build();
+                } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                }
+        }
+
+        private List<BatchResult> batch(BatchRequest request) throws Exception {
+                String content = mockMvc.perform(
+                                post("/api/batch")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<BatchResult>> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertNull(response.getErrors());
+                return response.getData();
+        }
+}
@@ -0,0 +1,124 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Contact.ContactResponse;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+import com.restful.core.sql.QueryBudget;
+
+@SpringBootTest(properties = "app.contacts.search-index.enabled=false")
+@AutoConfigureMockMvc
+public class ContactControllerLikeSearchTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                user.setToken("test");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+
+                for (int i = 0; i < 25; i++) {
+                        Contact contact = new Contact();
+                        contact.setUser(user);
+                        contact.setFirstName("Name" + (i % 7));
+                        contact.setLastName(i % 2 == 0 ? "Even" : "Odd");
+                        contact.setEmail("contact" + i + "@example.com");
+                        contact.setPhone("1234567890");
+                        contactRepository.save(contact);
+                }
+        }
+
+        @Test
+        @QueryBudget(3) // the token lookup, the page, and a count only when there is more than one page
+        void searchByName() throws Exception {
+                WebResponse<List<ContactResponse>> response = search("name=odd&size=100");
+                assertEquals(12, response.getData().size());
+                assertEquals(1, response.getPaging().getTotalPage());
+        }
+
+        @Test
+        void searchWithCursor() throws Exception {
+                Set<String> seen = new HashSet<>();
+                String cursor = "";
+                int pages = 0;
+                do {
+                        WebResponse<List<ContactResponse>> response = search("name=even&size=5&cursor=" + cursor);
+                        for (ContactResponse contact : response.getData()) {
+                                assertTrue(seen.add(contact.getId()));
+                        }
+                        cursor = response.getPaging().getNext();
+                        pages++;
+                } while (cursor != null);
+
+                assertEquals(13, seen.size());
+                assertEquals(3, pages);
+        }
+
+        private WebResponse<List<ContactResponse>> search(String query) throws Exception {
+                String content = mockMvc.perform(
+                                get("/api/contacts?" + query)
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<ContactResponse>> response = objectMapper.readValue(content,
+                                new TypeReference<>() {
+                                });
+                assertNull(response.getErrors());
+                return response;
+        }
+}
@@ -4,10 +4,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.http.MediaType;
@@ -17,17 +28,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.restful.core.entity.Address;
 import com.restful.core.entity.Contact;
 import com.restful.core.entity.User;
 import com.restful.core.model.WebResponse;
+import com.restful.core.model.Contact.BulkAction;
+import com.restful.core.model.Contact.BulkContactOperation;
+import com.restful.core.model.Contact.BulkContactResult;
+import com.restful.core.model.Contact.ContactLookupResponse;
 import com.restful.core.model.Contact.ContactResponse;
 import com.restful.core.model.Contact.CreateContactRequest;
+import com.restful.core.model.Contact.LookupContactRequest;
+import com.restful.core.model.Contact.PatchContactRequest;
+import com.restful.core.model.Contact.UpdateContactRequest;
+import com.restful.core.repository.AddressRepository;
 import com.restful.core.repository.ContactRepository;
 import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
 import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -41,11 +68,27 @@ public class ContactControllerTest {
         @Autowired
         private ContactRepository contactRepository;
 
+        @Autowired
+        private AddressRepository addressRepository;
+
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
         @BeforeEach
         void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
                 contactRepository.deleteAll();
                 userRepository.deleteAll();
 
@@ -117,7 +160,7 @@ public class ContactControllerTest {
                                                         assertEquals("1234567890", response.getData().getPhone());
 
                                                         assertTrue(contactRepository
-                                                                        .existsById(response.getData().getId()));
+                                                                        .existsById(UUID.fromString(response.getData().getId())));
 
                                                 });
         }
@@ -145,7 +188,6 @@ public class ContactControllerTest {
                 User user = userRepository.findById("test").orElseThrow();
 
                 Contact contact = new Contact();
-                contact.setId(UUID.randomUUID().toString());
                 contact.setUser(user);
                 contact.setFirstName("Test");
                 contact.setLastName("Test");
@@ -167,7 +209,7 @@ public class ContactControllerTest {
                                                                                         });
                                                         assertNull(response.getErrors());
 
-                                                        assertEquals(contact.getId(), response.getData().getId());
+                                                        assertEquals(contact.getId().toString(), response.getData().getId());
                                                         assertEquals(contact.getFirstName(),
                                                                         response.getData().getFirstName());
                                                         assertEquals(contact.getLastName(),
@@ -176,4 +218,534 @@ public class ContactControllerTest {
                                                         assertEquals(contact.getPhone(), response.getData().getPhone());
                                                 });
         }
+
+        @Test
+        void getContactNotModified() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+
+                String etag = mockMvc.perform(
+                                get("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+                assertNotNull(etag);
+
+                mockMvc.perform(
+                                get("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-None-Match", etag)
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                .andExpectAll(status().isNotModified(), header().string("ETag", etag),
+                                                content().string(""));
+
+                UpdateContactRequest request = UpdateContactRequest.builder()
+                                .firstName("Alicia")
+                                .lastName("Keys")
+                                .build();
+
+                mockMvc.perform(
+                                put("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk());
+
+                String updated = mockMvc.perform(
+                                get("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-None-Match", etag)
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+                assertTrue(!etag.equals(updated));
+        }
+
+        @Test
+        void searchNotModified() throws Exception {
+                saveContact("Alice", "Walker", "alice@example.com");
+
+                String etag = mockMvc.perform(
+                                get("/api/contacts?name=a")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+                assertNotNull(etag);
+
+                mockMvc.perform(
+                                get("/api/contacts?name=a")
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-None-Match", etag))
+                                .andExpectAll(status().isNotModified(), content().string(""));
+
+                CreateContactRequest request = CreateContactRequest.builder()
+                                .firstName("Anna")
+                                .lastName("Smith")
+                                .build();
+
+                mockMvc.perform(
+                                post("/api/contacts")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk());
+
+                mockMvc.perform(
+                                get("/api/contacts?name=a")
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-None-Match", etag))
+                                .andExpectAll(status().isOk());
+        }
+
+        @Test
+        void patchContactChangesOnlyGivenFields() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+                assertEquals(1, search("name=walker").size());
+
+                PatchContactRequest request = PatchContactRequest.builder()
+                                .lastName("Keys")
+                                .build();
+
+                MvcResult result = mockMvc.perform(
+                                patch("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-Match", "\"v" + contact.getVersion() + "\"")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk(),
+                                                header().string("ETag", "\"v" + (contact.getVersion() + 1) + "\""))
+                                .andReturn();
+
+                WebResponse<ContactResponse> response = objectMapper.readValue(
+                                result.getResponse().getContentAsString(), new TypeReference<>() {
+                                });
+                assertEquals("Alice", response.getData().getFirstName());
+                assertEquals("Keys", response.getData().getLastName());
+                assertEquals("alice@example.com", response.getData().getEmail());
+                assertEquals(contact.getVersion() + 1, response.getData().getVersion());
+
+                Contact saved = contactRepository.findById(contact.getId()).orElseThrow();
+                assertEquals("Keys", saved.getLastName());
+                assertNotNull(saved.getUpdatedAt());
+                assertEquals(0, search("name=walker").size());
+                assertEquals(1, search("name=keys").size());
+        }
+
+        @Test
+        void patchContactWithStaleVersion() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+                String body = objectMapper.writeValueAsString(PatchContactRequest.builder().phone("555").build());
+
+                mockMvc.perform(
+                                patch("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-Match", "\"v" + contact.getVersion() + "\"")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(body))
+                                .andExpectAll(status().isOk());
+
+                mockMvc.perform(
+                                patch("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-Match", "\"v" + contact.getVersion() + "\"")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(body))
+                                .andExpectAll(status().isPreconditionFailed());
+
+                mockMvc.perform(
+                                patch("/api/contacts/missing")
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-Match", "\"v0\"")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(body))
+                                .andExpectAll(status().isNotFound());
+
+                mockMvc.perform(
+                                patch("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content("{}"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void searchContactsByName() throws Exception {
+                saveContact("Johnny", "Bravo", "johnny@example.com");
+                saveContact("Jane", "Smith", "jane@example.com");
+                saveContact("Elton", "Johnson", "elton@example.com");
+
+                List<ContactResponse> contacts = search("name=JOHN");
+                assertEquals(2, contacts.size());
+                assertEquals("Elton", contacts.get(0).getFirstName());
+                assertEquals("Johnny", contacts.get(1).getFirstName());
+
+                assertEquals(1, search("email=jane@").size());
+                assertEquals(0, search("name=john&email=jane").size());
+                assertEquals(3, search("phone=12").size());
+        }
+
+        @Test
+        void searchFollowsUpdateAndDelete() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+                assertEquals(1, search("name=alice").size());
+
+                UpdateContactRequest request = UpdateContactRequest.builder()
+                                .firstName("Alicia")
+                                .lastName("Keys")
+                                .email("alicia@example.com")
+                                .phone("1234567890")
+                                .build();
+
+                mockMvc.perform(
+                                put("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, search("name=walker").size());
+                assertEquals(contact.getId().toString(), search("name=keys").get(0).getId());
+
+                mockMvc.perform(
+                                delete("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, search("name=ali").size());
+        }
+
+        @Test
+        void deleteByUppercaseIdLeavesNothingInTheIndex() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+                assertEquals(1, search("name=alice").size());
+
+                mockMvc.perform(
+                                delete("/api/contacts/" + contact.getId().toString().toUpperCase(Locale.ROOT))
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, searchPage("name=alice").getPaging().getTotalPage());
+        }
+
+        @Test
+        void getContactAsSmileOrCbor() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+
+                for (String format : List.of("smile", "cbor")) {
+                        ObjectMapper binaryMapper = format.equals("smile") ? new ObjectMapper(new SmileFactory())
+                                        : new ObjectMapper(new CBORFactory());
+                        String accept = format.equals("smile") ? "application/x-jackson-smile" : "application/cbor";
+
+                        byte[] content = mockMvc.perform(
+                                        get("/api/contacts/" + contact.getId())
+                                                        .header("X-API-TOKEN", "test")
+                                                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                        .accept(accept))
+                                        .andExpectAll(status().isOk(), content().contentType(accept))
+                                        .andReturn().getResponse().getContentAsByteArray();
+
+                        WebResponse<ContactResponse> response = binaryMapper.readValue(content,
+                                        new TypeReference<>() {
+                                        });
+                        assertEquals(contact.getId().toString(), response.getData().getId());
+                        assertEquals("Alice", response.getData().getFirstName());
+                }
+        }
+
+        @Test
+        void eachFormatHasItsOwnETag() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+
+                Set<String> etags = new HashSet<>();
+                for (String accept : List.of("application/json", "application/x-jackson-smile", "application/cbor")) {
+                        etags.add(mockMvc.perform(
+                                        get("/api/contacts/" + contact.getId())
+                                                        .header("X-API-TOKEN", "test")
+                                                        .accept(accept))
+                                        .andExpectAll(status().isOk(), header().string("Vary", "Accept"))
+                                        .andReturn().getResponse().getHeader("ETag"));
+                }
+                assertEquals(3, etags.size());
+
+                String smileETag = mockMvc.perform(
+                                get("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .accept("application/x-jackson-smile"))
+                                .andReturn().getResponse().getHeader("ETag");
+                mockMvc.perform(
+                                get("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test")
+                                                .header("If-None-Match", smileETag)
+                                                .accept("application/json"))
+                                .andExpectAll(status().isOk());
+        }
+
+        @Test
+        void searchWithFieldsWritesOnlyThoseFields() throws Exception {
+                saveContact("Alice", "Walker", "alice@example.com");
+
+                MvcResult all = mockMvc.perform(
+                                get("/api/contacts")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn();
+                MvcResult narrowed = mockMvc.perform(
+                                get("/api/contacts?fields=id,firstName")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn();
+
+                JsonNode contact = objectMapper.readTree(narrowed.getResponse().getContentAsString())
+                                .get("data").get(0);
+                assertEquals(Set.of("id", "firstName"), fieldNames(contact));
+                assertEquals("Alice", contact.get("firstName").asText());
+                assertTrue(!all.getResponse().getHeader("ETag").equals(narrowed.getResponse().getHeader("ETag")));
+        }
+
+        @Test
+        void getContactWithFields() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+
+                String content = mockMvc.perform(
+                                get("/api/contacts/" + contact.getId() + "?fields=email")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                JsonNode data = objectMapper.readTree(content).get("data");
+                assertEquals(Set.of("email"), fieldNames(data));
+                assertEquals("alice@example.com", data.get("email").asText());
+        }
+
+        @Test
+        void searchWithUnknownField() throws Exception {
+                mockMvc.perform(
+                                get("/api/contacts?fields=id,password")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void deleteContactWithAddresses() throws Exception {
+                Contact contact = saveContact("Alice", "Walker", "alice@example.com");
+                for (String city : List.of("Jakarta", "Bandung")) {
+                        Address address = new Address();
+                        address.setContact(contact);
+                        address.setCity(city);
+                        address.setCountry("Indonesia");
+                        addressRepository.save(address);
+                }
+
+                mockMvc.perform(
+                                delete("/api/contacts/" + contact.getId())
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, addressRepository.count());
+                assertEquals(0, contactRepository.count());
+        }
+
+        @Test
+        void searchSeesContactCreatedAfterCaching() throws Exception {
+                saveContact("Alice", "Walker", "alice@example.com");
+                assertEquals(1, search("name=a").size());
+
+                CreateContactRequest request = CreateContactRequest.builder()
+                                .firstName("Anna")
+                                .lastName("Smith")
+                                .email("anna@example.com")
+                                .phone("1234567890")
+                                .build();
+
+                mockMvc.perform(
+                                post("/api/contacts")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(2, search("name=A").size());
+        }
+
+        @Test
+        void searchWithCursor() throws Exception {
+                for (int i = 0; i < 25; i++) {
+                        saveContact("Name" + (i % 7), "Last" + i, "contact" + i + "@example.com");
+                }
+
+                Set<String> seen = new HashSet<>();
+                String previousFirstName = "";
+                String cursor = "";
+                int pages = 0;
+                do {
+                        WebResponse<List<ContactResponse>> response = searchPage("size=10&cursor=" + cursor);
+                        assertNull(response.getPaging().getTotalPage());
+                        for (ContactResponse contact : response.getData()) {
+                                assertTrue(seen.add(contact.getId()));
+                                assertTrue(previousFirstName.compareTo(contact.getFirstName()) <= 0);
+                                previousFirstName = contact.getFirstName();
+                        }
+                        cursor = response.getPaging().getNext();
+                        pages++;
+                } while (cursor != null);
+
+                assertEquals(25, seen.size());
+                assertEquals(3, pages);
+        }
+
+        @Test
+        void searchWithInvalidCursor() throws Exception {
+                mockMvc.perform(
+                                get("/api/contacts?cursor=not-a-cursor")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void lookupKeepsRequestOrderAndReportsMissing() throws Exception {
+                Contact alice = saveContact("Alice", "Walker", "alice@example.com");
+                Contact bob = saveContact("Bob", "Stone", "bob@example.com");
+                String unknown = UUID.randomUUID().toString();
+
+                LookupContactRequest request = LookupContactRequest.builder()
+                                .ids(List.of(bob.getId().toString(), unknown, alice.getId().toString(), "not-an-id"))
+                                .build();
+
+                String content = mockMvc.perform(
+                                post("/api/contacts/lookup")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<ContactLookupResponse> response = objectMapper.readValue(content, new TypeReference<>() {
+                });
+                assertNull(response.getErrors());
+                assertEquals(List.of(bob.getId().toString(), alice.getId().toString()),
+                                response.getData().getContacts().stream().map(ContactResponse::getId).toList());
+                assertEquals(List.of(unknown, "not-an-id"), response.getData().getMissing());
+        }
+
+        @Test
+        void lookupWithoutIds() throws Exception {
+                mockMvc.perform(
+                                post("/api/contacts/lookup")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content("{\"ids\":[]}"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void bulkReportsEachOperation() throws Exception {
+                Contact existing = saveContact("Alice", "Walker", "alice@example.com");
+                Contact removed = saveContact("Bob", "Stone", "bob@example.com");
+
+                List<BulkContactOperation> operations = List.of(
+                                BulkContactOperation.builder().action(BulkAction.CREATE).firstName("Carol").build(),
+                                BulkContactOperation.builder().action(BulkAction.CREATE).firstName("").build(),
+                                BulkContactOperation.builder().action(BulkAction.UPDATE).id(existing.getId().toString())
+                                                .firstName("Alicia").build(),
+                                BulkContactOperation.builder().action(BulkAction.DELETE).id(removed.getId().toString()).build(),
+                                BulkContactOperation.builder().action(BulkAction.UPDATE).id("missing")
+                                                .firstName("Nobody").build());
+
+                String content = mockMvc.perform(
+                                post("/api/contacts/bulk")
+                                                .header("X-API-TOKEN", "test")
+                                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                                .content(objectMapper.writeValueAsString(operations)))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<BulkContactResult>> response = objectMapper.readValue(content,
+                                new TypeReference<>() {
+                                });
+                List<BulkContactResult> results = response.getData();
+
+                assertEquals(List.of(201, 400, 200, 200, 404),
+                                results.stream().map(BulkContactResult::getStatus).toList());
+                assertTrue(contactRepository.existsById(UUID.fromString(results.get(0).getId())));
+                assertNotNull(results.get(1).getError());
+                assertEquals("Alicia", contactRepository.findById(existing.getId()).orElseThrow().getFirstName());
+                assertTrue(contactRepository.findById(removed.getId()).isEmpty());
+                assertEquals(2, contactRepository.count());
+        }
+
+        @Test
+        void exportNdjson() throws Exception {
+                saveContact("Bob", "Stone", "bob@example.com");
+                saveContact("Alice", "Walker", "alice@example.com");
+
+                String[] lines = export("ndjson").split("\n");
+                assertEquals(2, lines.length);
+                assertEquals("Alice", objectMapper.readValue(lines[0], ContactResponse.class).getFirstName());
+                assertEquals("Bob", objectMapper.readValue(lines[1], ContactResponse.class).getFirstName());
+        }
+
+        @Test
+        void exportCsv() throws Exception {
+                saveContact("Alice", "Walker", "alice@example.com");
+
+                String[] lines = export("csv").split("\n");
+                assertEquals(2, lines.length);
+                assertEquals("id,firstName,lastName,email,phone", lines[0]);
+                assertTrue(lines[1].endsWith(",Alice,Walker,alice@example.com,1234567890"));
+        }
+
+        @Test
+        void exportUnsupportedFormat() throws Exception {
+                mockMvc.perform(
+                                get("/api/contacts/export?format=xml")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        private String export(String format) throws Exception {
+                MvcResult result = mockMvc.perform(
+                                get("/api/contacts/export?format=" + format)
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result)).andExpectAll(status().isOk());
+                return result.getResponse().getContentAsString();
+        }
+
+        private static Set<String> fieldNames(JsonNode node) {
+                Set<String> names = new HashSet<>();
+                node.fieldNames().forEachRemaining(names::add);
+                return names;
+        }
+
+        private Contact saveContact(String firstName, String lastName, String email) {
+                Contact contact = new Contact();
+                contact.setUser(userRepository.findById("test").orElseThrow());
+                contact.setFirstName(firstName);
+                contact.setLastName(lastName);
+                contact.setEmail(email);
+                contact.setPhone("1234567890");
+                return contactRepository.save(contact);
+        }
+
+        private List<ContactResponse> search(String query) throws Exception {
+                return searchPage(query).getData();
+        }
+
+        private WebResponse<List<ContactResponse>> searchPage(String query) throws Exception {
+                String content = mockMvc.perform(
+                                get("/api/contacts?" + query)
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<List<ContactResponse>> response = objectMapper.readValue(content,
+                                new TypeReference<>() {
+                                });
+                assertNull(response.getErrors());
+                return response;
+        }
 }
@@ -0,0 +1,189 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.model.WebResponse;
+import com.restful.core.model.Contact.ImportJobResponse;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ContactImportControllerTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                user.setToken("test");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+        }
+
+        @Test
+        void importCsv() throws Exception {
+                String csv = """
+                                firstName,lastName,email,phone,street,city,country,postalCode
+                                John,Doe, JOHN@example.com ,0812-3456-789,Jl. Sudirman,Jakarta,Indonesia,10220
+                                Jane,Roe,jane@example.com,0811111,,,,
+                                ,,not-an-email,,,,,
+                                """;
+
+                ImportJobResponse job = awaitCompletion(start("csv", csv));
+
+                assertEquals(3, job.getRowsRead());
+                assertEquals(2, job.getRowsImported());
+                assertEquals(1, job.getRowsFailed());
+                assertEquals(1, job.getErrors().size());
+                assertTrue(job.getErrors().get(0).contains("firstName"));
+
+                List<Contact> contacts = contactRepository.findAll();
+                assertEquals(2, contacts.size());
+                Contact john = contacts.stream().filter(c -> c.getFirstName().equals("John")).findFirst().orElseThrow();
+                assertEquals("john@example.com", john.getEmail());
+                assertEquals("08123456789", john.getPhone());
+                assertEquals(1, addressRepository.findAll().stream()
+                                .filter(address -> "Jakarta".equals(address.getCity())).count());
+        }
+
+        @Test
+        void importVCard() throws Exception {
+                String vcard = """
+                                BEGIN:VCARD
+                                VERSION:3.0
+                                N:Doe;John;;;
+                                FN:John Doe
+                                EMAIL;TYPE=work:john@example.com
+                                TEL;TYPE=cell:+62 812 3456
+                                ADR;TYPE=home:;;Jl. Sudirman 1;Jakarta;DKI;10220;Indonesia
+                                END:VCARD
+                                BEGIN:VCARD
+                                VERSION:4.0
+                                FN:Jane
+                                END:VCARD
+                                """;
+
+                ImportJobResponse job = awaitCompletion(start("vcard", vcard));
+
+                assertEquals(2, job.getRowsImported());
+                assertEquals(0, job.getRowsFailed());
+                assertEquals(2, contactRepository.count());
+                assertEquals(1, addressRepository.findAll().stream()
+                                .filter(address -> "Indonesia".equals(address.getCountry())).count());
+        }
+
+        @Test
+        void importUnsupportedFormat() throws Exception {
+                mockMvc.perform(
+                                multipart("/api/contacts/imports")
+                                                .file(file("x"))
+                                                .param("format", "xlsx")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void statusOfUnknownJob() throws Exception {
+                mockMvc.perform(
+                                get("/api/contacts/imports/unknown")
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isNotFound());
+        }
+
+        private ImportJobResponse start(String format, String content) throws Exception {
+                String body = mockMvc.perform(
+                                multipart("/api/contacts/imports")
+                                                .file(file(content))
+                                                .param("format", format)
+                                                .header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                WebResponse<ImportJobResponse> response = objectMapper.readValue(body, new TypeReference<>() {
+                });
+                assertNull(response.getErrors());
+                assertNotNull(response.getData().getId());
+                return response.getData();
+        }
+
+        private ImportJobResponse awaitCompletion(ImportJobResponse job) throws Exception {
+                for (int attempt = 0; attempt < 100; attempt++) {
+                        String body = mockMvc.perform(
+                                        get("/api/contacts/imports/" + job.getId())
+                                                        .header("X-API-TOKEN", "test"))
+                                        .andExpectAll(status().isOk())
+                                        .andReturn().getResponse().getContentAsString();
+
+                        WebResponse<ImportJobResponse> response = objectMapper.readValue(body, new TypeReference<>() {
+                        });
+                        if (response.getData().getState().equals("COMPLETED")) {
+                                return response.getData();
+                        }
+                        assertTrue(!response.getData().getState().equals("FAILED"), response.getData().getErrors().toString());
+                        Thread.sleep(100);
+                }
+                throw new AssertionError("Import did not complete");
+        }
+
+        private static MockMultipartFile file(String content) {
+                return new MockMultipartFile("file", "contacts", "text/plain", content.getBytes(StandardCharsets.UTF_8));
+        }
+}
@@ -0,0 +1,214 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.restful.core.entity.Address;
+import com.restful.core.entity.Contact;
+import com.restful.core.entity.User;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+import com.restful.core.sql.QueryBudget;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class ContactQueryCountTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private Statistics statistics;
+
+        private String contactId;
+
+        private List<String> contactIds;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                user.setToken("test");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+
+                contactIds = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                        Contact contact = new Contact();
+                        contact.setUser(user);
+                        contact.setFirstName("Name" + i);
+                        contact.setLastName("Last" + i);
+                        contact.setEmail("contact" + i + "@example.com");
+                        contact.setPhone("1234567890");
+                        contactRepository.save(contact);
+                        contactId = contact.getId().toString();
+                        contactIds.add(contactId);
+
+                        for (int j = 0; j < 2; j++) {
+                                Address address = new Address();
+                                address.setContact(contact);
+                                address.setCity("City" + j);
+                                address.setCountry("Indonesia");
+                                addressRepository.save(address);
+                        }
+                }
+
+                // Warm the token cache and the search index so only the read itself is counted
+                mockMvc.perform(get("/api/contacts").header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk());
+
+                statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+        }
+
+        @Test
+        @QueryBudget(1)
+        void getRunsOneQueryWithoutLoadingEntities() throws Exception {
+                mockMvc.perform(get("/api/contacts/" + contactId).header("X-API-TOKEN", "test")
+                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        void revalidationReadsOnlyTheVersion() throws Exception {
+                String etag = mockMvc.perform(get("/api/contacts/" + contactId).header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+                statistics.clear();
+
+                mockMvc.perform(get("/api/contacts/" + contactId).header("X-API-TOKEN", "test")
+                                .header("If-None-Match", etag))
+                                .andExpectAll(status().isNotModified());
+
+                assertEquals(1, statistics.getPrepareStatementCount());
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        @QueryBudget(2) // the UPDATE, then the projection read for the response
+        void patchUpdatesWithoutReadingFirst() throws Exception {
+                mockMvc.perform(patch("/api/contacts/" + contactId).header("X-API-TOKEN", "test")
+                                .header("If-Match", "\"v0\"")
+                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                .content("{\"phone\":\"555\"}"))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        @QueryBudget(1)
+        void lookupRunsOneQueryForManyIds() throws Exception {
+                String ids = contactIds.stream()
+                                .map(id -> "\"" + id + "\"")
+                                .collect(Collectors.joining(","));
+
+                mockMvc.perform(post("/api/contacts/lookup").header("X-API-TOKEN", "test")
+                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                .content("{\"ids\":[" + ids + "]}"))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        @QueryBudget(1) // the index finds the IDs, one query reads the page
+        void searchRunsOneQueryWithoutLoadingEntities() throws Exception {
+                mockMvc.perform(get("/api/contacts?name=name1&size=5").header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        // The page, its count, and one batched read of every address on it, once per request
+        @QueryBudget(value = 6, maxRepeats = 2)
+        void contactsWithAddressesTakeThreeQueriesAtAnyPageSize() throws Exception {
+                for (int size : new int[] { 5, 20 }) {
+                        mockMvc.perform(get("/api/contacts/with-addresses?size=" + size).header("X-API-TOKEN", "test"))
+                                        .andExpectAll(status().isOk());
+                }
+        }
+
+        @Test
+        // One read of the chunk and its owner, then the UPDATEs; no select per contact
+        @QueryBudget(value = 22, maxRepeats = 1)
+        void bulkUpdateReadsTheChunkOnce() throws Exception {
+                String operations = contactIds.stream()
+                                .map(id -> "{\"action\":\"update\",\"id\":\"" + id + "\",\"firstName\":\"Renamed\"}")
+                                .collect(Collectors.joining(",", "[", "]"));
+
+                mockMvc.perform(post("/api/contacts/bulk").header("X-API-TOKEN", "test")
+                                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                .content(operations))
+                                .andExpectAll(status().isOk());
+        }
+
+        @Test
+        void contactsWithAddressesRejectsLargePages() throws Exception {
+                mockMvc.perform(get("/api/contacts/with-addresses?size=101").header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isBadRequest());
+        }
+
+        @Test
+        void repeatedSearchIsServedFromCache() throws Exception {
+                mockMvc.perform(get("/api/contacts").header("X-API-TOKEN", "test"))
+                                .andExpectAll(status().isOk());
+
+                assertEquals(0, statistics.getPrepareStatementCount());
+        }
+}
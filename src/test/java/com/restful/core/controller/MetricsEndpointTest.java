@@ -0,0 +1,100 @@
+package com.restful.core.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.restful.core.entity.User;
+import com.restful.core.repository.AddressRepository;
+import com.restful.core.repository.ContactRepository;
+import com.restful.core.repository.UserRepository;
+import com.restful.core.search.ContactSearchCache;
+import com.restful.core.search.ContactSearchIndex;
+import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
+
+// Metrics export is off in tests unless asked for; the management port only
+// exists with a real server
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointTest {
+        @Autowired
+        private TestRestTemplate restTemplate;
+
+        @LocalManagementPort
+        private int managementPort;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ContactRepository contactRepository;
+
+        @Autowired
+        private AddressRepository addressRepository;
+
+        @Autowired
+        private TokenCache tokenCache;
+
+        @Autowired
+        private ContactSearchCache contactSearchCache;
+
+        @Autowired
+        private ContactSearchIndex contactSearchIndex;
+
+        @BeforeEach
+        void setUp() {
+                tokenCache.clear();
+                contactSearchCache.clear();
+                contactSearchIndex.clear();
+                addressRepository.deleteAll();
+                contactRepository.deleteAll();
+                userRepository.deleteAll();
+
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+                user.setName("Test User");
+                user.setToken("test");
+                user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+                userRepository.save(user);
+        }
+
+        @Test
+        void prometheusScrape() {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set("X-API-TOKEN", "test");
+                ResponseEntity<String> search = restTemplate.exchange("/api/contacts?name=ali", HttpMethod.GET,
+                                new HttpEntity<>(headers), String.class);
+                assertEquals(HttpStatus.OK, search.getStatusCode());
+
+                String scrape = restTemplate.getForObject(
+                                "http://127.0.0.1:" + managementPort + "/actuator/prometheus", String.class);
+
+                assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram");
+                assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket{"), "pool wait histogram");
+                assertTrue(scrape.contains("hikaricp_connections_active{"), "pool usage");
+                assertTrue(scrape.contains("hibernate_statements_total{"), "hibernate statistics");
+                assertTrue(scrape.contains("auth_resolve_duration_seconds_bucket{"), "token resolution");
+                assertTrue(scrape.contains("contacts_search_duration_seconds_bucket{"), "search misses");
+                assertTrue(scrape.contains("bcrypt_log_rounds"), "bcrypt");
+        }
+
+        @Test
+        void notServedOnTheApplicationPort() {
+                assertEquals(HttpStatus.NOT_FOUND,
+                                restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+        }
+}
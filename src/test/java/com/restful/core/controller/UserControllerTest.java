@@ -21,6 +21,7 @@ import com.restful.core.model.User.UpdateUserRequest;
 import com.restful.core.model.User.UserResponse;
 import com.restful.core.repository.UserRepository;
 import com.restful.core.security.BCrypt;
+import com.restful.core.security.TokenCache;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -35,8 +36,12 @@ public class UserControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TokenCache tokenCache;
+
     @BeforeEach
     void setUp() {
+        tokenCache.clear();
         userRepository.deleteAll();
     }
 
@@ -240,4 +245,30 @@ public class UserControllerTest {
                 });
 
     }
+
+    @Test
+    void updateUserNameOnlyKeepsPassword() throws Exception {
+        User user = new User();
+        user.setUsername("test");
+        user.setName("Test");
+        user.setToken("test");
+        user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt()));
+        user.setTokenExpiredAt(System.currentTimeMillis() + 100000000L);
+        userRepository.save(user);
+
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("Updated Name");
+
+        mockMvc.perform(
+                patch("/api/users/current")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-TOKEN", "test")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpectAll(status().isOk());
+
+        User userInDb = userRepository.findById("test").orElseThrow();
+        assertEquals("Updated Name", userInDb.getName());
+        assertEquals(user.getPassword(), userInDb.getPassword());
+    }
 }
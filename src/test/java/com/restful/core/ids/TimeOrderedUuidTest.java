@@ -0,0 +1,40 @@
+package com.restful.core.ids;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class TimeOrderedUuidTest {
+    @Test
+    void isVersion7AndIncreasing() {
+        long before = System.currentTimeMillis();
+        String previous = "";
+        for (int i = 0; i < 10000; i++) {
+            UUID uuid = TimeOrderedUuid.next();
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+
+            // String order is the unsigned byte order MySQL uses for BINARY(16)
+            String value = uuid.toString();
+            assertTrue(value.compareTo(previous) > 0);
+            previous = value;
+        }
+
+        long timestamp = TimeOrderedUuid.next().getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before);
+    }
+
+    @Test
+    void parsesOnlyCanonicalUuids() {
+        UUID uuid = TimeOrderedUuid.next();
+        assertEquals(uuid, TimeOrderedUuid.parse(uuid.toString()));
+        assertEquals(uuid, TimeOrderedUuid.parse(uuid.toString().toUpperCase()));
+        assertNull(TimeOrderedUuid.parse("1-2-3-4-5"));
+        assertNull(TimeOrderedUuid.parse("98234982398"));
+        assertNull(TimeOrderedUuid.parse(null));
+    }
+}
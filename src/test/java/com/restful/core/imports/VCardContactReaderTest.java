@@ -0,0 +1,53 @@
+package com.restful.core.imports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class VCardContactReaderTest {
+    @Test
+    void readsFoldedAndEscapedValues() throws Exception {
+        String vcard = "BEGIN:VCARD\r\n"
+                + "VERSION:3.0\r\n"
+                + "N:O\\;Brien;Mary Ann\r\n"
+                + "EMAIL:mary@exam\r\n"
+                + " ple.com\r\n"
+                + "EMAIL:second@example.com\r\n"
+                + "TEL;VALUE=uri:tel:+62-811-111\r\n"
+                + "ADR:;;Jl. Merdeka 5\\, Blok A;Bandung;Jawa Barat;40111;Indonesia\r\n"
+                + "END:VCARD\r\n";
+
+        try (VCardContactReader reader = reader(vcard)) {
+            ImportRecord record = reader.next();
+            assertEquals("Mary Ann", record.firstName());
+            assertEquals("O;Brien", record.lastName());
+            assertEquals("mary@example.com", record.email());
+            assertEquals("+62-811-111", record.phone());
+            assertEquals("Jl. Merdeka 5, Blok A", record.street());
+            assertEquals("Bandung", record.city());
+            assertEquals("Jawa Barat", record.province());
+            assertEquals("40111", record.postalCode());
+            assertEquals("Indonesia", record.country());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void fallsBackToFormattedName() throws Exception {
+        try (VCardContactReader reader = reader("BEGIN:VCARD\nFN:Budi\nEND:VCARD\nBEGIN:VCARD\nFN:Sari\nEND:VCARD\n")) {
+            assertEquals("Budi", reader.next().firstName());
+            ImportRecord second = reader.next();
+            assertEquals("Sari", second.firstName());
+            assertEquals(4, second.line());
+            assertNull(reader.next());
+        }
+    }
+
+    private static VCardContactReader reader(String content) {
+        return new VCardContactReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
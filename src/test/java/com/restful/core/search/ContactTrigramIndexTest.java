@@ -0,0 +1,64 @@
+package com.restful.core.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ContactTrigramIndexTest {
+    @Test
+    void matchesSubstringsLikeSql() {
+        ContactTrigramIndex index = new ContactTrigramIndex();
+        index.put("1", "John", "Doe", "john@example.com", "0811111");
+        index.put("2", "Mary", "Johnson", null, "0822222");
+        index.put("3", "Bob", "Stone", "bob@example.org", null);
+
+        assertEquals(List.of("1", "2"), index.search("JOHN", null, null));
+        assertEquals(List.of("1", "2"), index.search("o", null, "08"));
+        assertEquals(List.of("3", "1"), index.search(null, "@example", null));
+        assertEquals(List.of("3", "1"), index.search(null, "", null));
+        assertEquals(List.of("3"), index.search("sto", ".org", null));
+        assertEquals(List.of(), index.search("johnx", null, null));
+        assertEquals(List.of("3", "1", "2"), index.search(null, null, null));
+    }
+
+    @Test
+    void forgetsOldValuesAfterUpdateAndRemove() {
+        ContactTrigramIndex index = new ContactTrigramIndex();
+        index.put("1", "John", "Doe", "john@example.com", "0811111");
+        index.put("1", "Jane", "Roe", "jane@example.com", "0811111");
+        index.put("2", "Anna", "Doe", "anna@example.com", "0822222");
+        index.remove("2");
+
+        assertEquals(List.of(), index.search("doe", null, null));
+        assertEquals(List.of("1"), index.search("roe", null, null));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactsTombstones() {
+        ContactTrigramIndex index = new ContactTrigramIndex();
+        for (int i = 0; i < 5000; i++) {
+            index.put("1", "Name" + i, "Last", null, null);
+        }
+        index.put("2", "Other", "Last", null, null);
+
+        assertEquals(List.of("1"), index.search("name4999", null, null));
+        assertEquals(List.of("1", "2"), index.search("last", null, null));
+        assertEquals(List.of(), index.search("name4998", null, null));
+    }
+
+    @Test
+    void searchAfterContinuesFromCursor() {
+        ContactTrigramIndex index = new ContactTrigramIndex();
+        index.put("a", "Ann", "Lee", null, null);
+        index.put("b", "ann", "Lee", null, null);
+        index.put("c", "Bob", "Lee", null, null);
+        index.put("d", "Cid", "Lee", null, null);
+
+        assertEquals(List.of("a", "b"), index.searchAfter("lee", null, null, null, null, 2));
+        assertEquals(List.of("c", "d"), index.searchAfter("lee", null, null, "ANN", "b", 2));
+        assertEquals(List.of(), index.searchAfter("lee", null, null, "Cid", "d", 2));
+    }
+}
@@ -0,0 +1,64 @@
+package com.restful.core.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class BCryptTest {
+    // Hashes produced by the original engine; the reworked one must reproduce them exactly
+    private static final String[][] VECTORS = {
+            { "", "$2a$06$DCq7YPn5Rq63x1Lad4cll.",
+                    "$2a$06$DCq7YPn5Rq63x1Lad4cll.TV4S6ytwfsfvkgY8jIucDrjc8deX1s." },
+            { "a", "$2a$06$m0CrhHm10qJ3lXRY.5zDGO",
+                    "$2a$06$m0CrhHm10qJ3lXRY.5zDGO3rS2KdeeWLuGmsfGlMfOxih58VYVfxe" },
+            { "abc", "$2a$06$If6bvum7DFjUnE9p2uDeDu",
+                    "$2a$06$If6bvum7DFjUnE9p2uDeDu0YHzrHM6tf.iqN8.yx.jNN1ILEf7h0i" },
+            { "abcdefghijklmnopqrstuvwxyz", "$2a$06$.rCVZVOThsIa97pEDOxvGu",
+                    "$2a$06$.rCVZVOThsIa97pEDOxvGuRRgzG64bvtJ0938xuqzv18d3ZpQhstC" },
+            { "~!@#$%^&*()      ~!@#$%^&*()PNBFRD", "$2a$06$fPIsBO8qRqkjj273rfaOI.",
+                    "$2a$06$fPIsBO8qRqkjj273rfaOI.HtSV9jLDpTbZn782DC6/t7qT67P6FfO" },
+            { "\u2605\u2605\u2605", "$2b$05$CCCCCCCCCCCCCCCCCCCCC.",
+                    "$2b$05$CCCCCCCCCCCCCCCCCCCCC.BDIkM6FR25Fz7abPBXROuK9bLaseY0i" },
+            { "\u00a3", "$2x$05$/OK.fbVrR/bpIqNJ5ianF.",
+                    "$2x$05$/OK.fbVrR/bpIqNJ5ianF.ZWGqVwLKgsYeGeOWNzCYbZCI.oWeH2C" },
+            { "\u00a3", "$2y$05$/OK.fbVrR/bpIqNJ5ianF.",
+                    "$2y$05$/OK.fbVrR/bpIqNJ5ianF.crQZGxQ7hWEf.fNKRjrYcudfgPvGbVK" },
+    };
+
+    @Test
+    void hashpwMatchesKnownHashes() {
+        for (String[] vector : VECTORS) {
+            assertEquals(vector[2], BCrypt.hashpw(vector[0], vector[1]));
+        }
+    }
+
+    @Test
+    void checkpwAcceptsOnlyTheRightPassword() {
+        for (String[] vector : VECTORS) {
+            assertTrue(BCrypt.checkpw(vector[0], vector[2]));
+            assertFalse(BCrypt.checkpw(vector[0] + "x", vector[2]));
+        }
+    }
+
+    @Test
+    void gensaltRoundTrips() {
+        String hashed = BCrypt.hashpw("password", BCrypt.gensalt(4));
+        assertTrue(hashed.startsWith("$2a$04$"));
+        assertTrue(BCrypt.checkpw("password", hashed));
+    }
+
+    @Test
+    void clearsThreadStateAfterEachCall() {
+        String hashed = BCrypt.hashpw("password", BCrypt.gensalt(4));
+        assertTrue(BCrypt.isCleared());
+
+        assertTrue(BCrypt.checkpw("password", hashed));
+        assertTrue(BCrypt.isCleared());
+
+        assertThrows(IllegalArgumentException.class, () -> BCrypt.hashpw("password", "$2a$03$abcdefghijklmnopqrstuu"));
+        assertTrue(BCrypt.isCleared());
+    }
+}
@@ -0,0 +1,57 @@
+package com.restful.core.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// One BCrypt thread and one queue slot, so a single slow check saturates the pool
+@SpringBootTest(properties = {
+        "app.bcrypt.pool-size=1",
+        "app.bcrypt.queue-capacity=1",
+        "app.bcrypt.timeout=PT1S",
+        "app.bcrypt.log-rounds=4"
+})
+public class PasswordHasherSaturationTest {
+    // Cost 16 takes seconds, well past app.bcrypt.timeout; the salt and digest are arbitrary
+    private static final String SLOW_HASH = "$2a$16$abcdefghijklmnopqrstuu" + "abcdefghijklmnopqrstuvwxyz01234";
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void answersServiceUnavailableOnTimeoutAndWhenQueueIsFull() throws Exception {
+        ResponseStatusException timedOut = assertThrows(ResponseStatusException.class,
+                () -> passwordHasher.check("test", SLOW_HASH));
+        assertEquals(503, timedOut.getStatusCode().value());
+
+        // The timed-out check still occupies the only thread; the next one takes the queue slot
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHasher.check("test", SLOW_HASH));
+        for (int i = 0; i < 100 && queueLength() < 1; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, queueLength());
+
+        double rejected = meterRegistry.get("bcrypt.rejected").counter().count();
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class,
+                () -> passwordHasher.hash("test"));
+        assertEquals(503, refused.getStatusCode().value());
+        assertEquals(rejected + 1, meterRegistry.get("bcrypt.rejected").counter().count());
+
+        queued.handle((result, e) -> null).join();
+    }
+
+    private double queueLength() {
+        return meterRegistry.get("executor.queued").tag("name", "bcrypt").gauge().value();
+    }
+}
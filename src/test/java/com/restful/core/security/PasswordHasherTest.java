@@ -0,0 +1,45 @@
+package com.restful.core.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+public class PasswordHasherTest {
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordsQueueWaitAndHashDuration() {
+        long hashes = count("bcrypt.hash.duration", "hash");
+        long checks = count("bcrypt.hash.duration", "check");
+        long hashWaits = count("bcrypt.queue.wait", "hash");
+        long checkWaits = count("bcrypt.queue.wait", "check");
+
+        String hashed = passwordHasher.hash("secret");
+        assertTrue(passwordHasher.check("secret", hashed));
+
+        assertEquals(hashes + 1, count("bcrypt.hash.duration", "hash"));
+        assertEquals(checks + 1, count("bcrypt.hash.duration", "check"));
+        assertEquals(hashWaits + 1, count("bcrypt.queue.wait", "hash"));
+        assertEquals(checkWaits + 1, count("bcrypt.queue.wait", "check"));
+        assertTrue(meterRegistry.get("bcrypt.hash.duration").tag("operation", "hash").timer().totalTime(
+                TimeUnit.NANOSECONDS) > 0);
+    }
+
+    private long count(String name, String operation) {
+        Timer timer = meterRegistry.find(name).tag("operation", operation).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
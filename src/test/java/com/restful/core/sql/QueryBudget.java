@@ -0,0 +1,22 @@
+package com.restful.core.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails the test if its body runs more than {@link #value()} SQL statements,
+ * or one select more than {@link #maxRepeats()} times. Statements run in
+ * {@code @BeforeEach} methods are not counted.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    int value();
+
+    int maxRepeats() default 1;
+}
@@ -0,0 +1,37 @@
+package com.restful.core.sql;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace
+            .create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatements.record());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatements.Recording recording = context.getStore(NAMESPACE).remove(context.getUniqueId(),
+                SqlStatements.Recording.class);
+        recording.close();
+
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (recording.count() > budget.value()) {
+            fail("Ran " + recording.count() + " SQL statements, over the budget of " + budget.value() + ": "
+                    + recording.shapes());
+        }
+
+        Map<String, Integer> repeated = recording.repeatedSelects(budget.maxRepeats() + 1);
+        if (!repeated.isEmpty()) {
+            fail("Ran the same select more than " + budget.maxRepeats() + " times, likely N+1: " + repeated);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.restful.core.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class SqlStatementsTest {
+    @Test
+    void groupsStatementsByShape() {
+        assertEquals("select c.id from contacts c where c.id in (?) and c.username=?",
+                SqlStatements.shapeOf("select c.id\n    from contacts c\n    where c.id in (?, ?,?) and c.username=?"));
+
+        try (SqlStatements.Recording recording = SqlStatements.record()) {
+            SqlStatements.add("select * from addresses where contact_id=?");
+            SqlStatements.add("select * from addresses  where contact_id=?");
+            SqlStatements.add("select * from addresses where contact_id=?");
+            SqlStatements.add("insert into contacts values (?,?)");
+            SqlStatements.add("insert into contacts values (?,?)");
+            SqlStatements.add("insert into contacts values (?,?)");
+
+            assertEquals(6, recording.count());
+            assertEquals(Map.of("select * from addresses where contact_id=?", 3), recording.repeatedSelects(3));
+            assertEquals(Map.of(), recording.repeatedSelects(4));
+        }
+    }
+
+    @Test
+    void nestedRecordingsBothCount() {
+        try (SqlStatements.Recording outer = SqlStatements.record()) {
+            SqlStatements.add("select 1");
+            try (SqlStatements.Recording inner = SqlStatements.record()) {
+                SqlStatements.add("select 2");
+                assertEquals(1, inner.count());
+            }
+            SqlStatements.add("select 3");
+
+            assertEquals(3, outer.count());
+        }
+
+        SqlStatements.add("select 4");
+    }
+}